@@ -1,7 +1,28 @@
+import com.github.weisj.jsvg.attributes.ViewBox
+import com.github.weisj.jsvg.parser.SVGLoader
+import groovy.json.JsonOutput
+import groovy.json.JsonSlurper
+import java.awt.Component
+import java.awt.RenderingHints
+import java.awt.image.BufferedImage
+import java.io.DataOutputStream
+import javax.imageio.ImageIO
+
+buildscript {
+    repositories {
+        mavenCentral()
+    }
+    dependencies {
+        // SVG renderer used by generateIconAtlas (the same one the IDE uses)
+        classpath("com.github.weisj:jsvg:1.4.0")
+    }
+}
+
 plugins {
     id("java")
     id("org.jetbrains.intellij") version "1.17.4"
     id("org.jetbrains.kotlin.jvm") version "1.9.25"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "dev.jetplugins.beardedtheme"
@@ -17,6 +38,168 @@ dependencies {
     testImplementation("org.assertj:assertj-core:3.25.3")
 }
 
+// Pre-rasterized icon atlases: one PNG per common UI scale, plus the icon order
+// shared by all of them. BeardedIconAtlas paints from these at runtime and only
+// falls back to the SVGs for other scales.
+val iconAtlasScales = listOf(100, 125, 150, 200)
+val iconAtlasColumns = 16
+
+val generateIconAtlas by tasks.registering {
+    description = "Renders the SVG icon set into sprite atlases for common UI scales."
+    val iconsDir = file("src/main/resources/icons")
+    val outputDir = layout.buildDirectory.dir("generated/iconAtlas")
+    inputs.dir(iconsDir)
+    inputs.property("scales", iconAtlasScales)
+    inputs.property("columns", iconAtlasColumns)
+    outputs.dir(outputDir)
+
+    doLast {
+        val icons = iconsDir.listFiles { f -> f.extension == "svg" }!!.sortedBy { it.name }
+        val atlasDir = outputDir.get().dir("atlas").asFile
+        atlasDir.deleteRecursively()
+        atlasDir.mkdirs()
+        atlasDir.resolve("atlas.txt").writeText(icons.joinToString("\n", postfix = "\n") { it.nameWithoutExtension })
+
+        val loader = SVGLoader()
+        val documents = icons.map { svg ->
+            loader.load(svg.toURI().toURL()) ?: throw GradleException("Cannot parse icon ${svg.name}")
+        }
+        val rows = (icons.size + iconAtlasColumns - 1) / iconAtlasColumns
+        for (percent in iconAtlasScales) {
+            val cell = 16 * percent / 100
+            val atlas = BufferedImage(iconAtlasColumns * cell, rows * cell, BufferedImage.TYPE_INT_ARGB)
+            val g = atlas.createGraphics()
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON)
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON)
+            g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE)
+            documents.forEachIndexed { i, document ->
+                val x = (i % iconAtlasColumns) * cell
+                val y = (i / iconAtlasColumns) * cell
+                document.render(null as Component?, g, ViewBox(x.toFloat(), y.toFloat(), cell.toFloat(), cell.toFloat()))
+            }
+            g.dispose()
+            ImageIO.write(atlas, "png", atlasDir.resolve("atlas-$percent.png"))
+        }
+    }
+}
+
+// Themes are kept as one UI template (src/main/themes/template.theme.json) plus
+// a palette per theme (<slug>.palette.json), and editor schemes as one XML
+// template (template.xml) plus a color table per theme (<slug>.scheme.json).
+// The IDE loads concrete theme JSON and scheme XML, so both are expanded here.
+fun materializeTheme(node: Any?, palette: Map<*, *>, source: File): Any? = when (node) {
+    is Map<*, *> -> node.entries.associateTo(LinkedHashMap<Any?, Any?>()) { it.key to materializeTheme(it.value, palette, source) }
+    is List<*> -> node.map { materializeTheme(it, palette, source) }
+    is String -> if (node.startsWith("$")) {
+        val slot = node.substring(1)
+        if (!palette.containsKey(slot)) throw GradleException("${source.name} has no value for $slot")
+        palette[slot]
+    } else node
+    else -> node
+}
+
+val materializeThemes by tasks.registering {
+    description = "Expands the theme and editor scheme templates into *.theme.json and *.xml files."
+    val themesDir = file("src/main/themes")
+    val outputDir = layout.buildDirectory.dir("generated/themes")
+    inputs.dir(themesDir)
+    outputs.dir(outputDir)
+
+    doLast {
+        val targetDir = outputDir.get().dir("themes").asFile
+        targetDir.deleteRecursively()
+        targetDir.mkdirs()
+        // Source deduplication only: each *.theme.json comes out identical to the
+        // hand-kept file it replaced, so the jar and runtime are unchanged.
+        val template = JsonSlurper().parse(themesDir.resolve("template.theme.json"))
+        themesDir.listFiles { f -> f.name.endsWith(".palette.json") }!!.forEach { paletteFile ->
+            val palette = JsonSlurper().parse(paletteFile) as Map<*, *>
+            val theme = materializeTheme(template, palette, paletteFile)
+            targetDir.resolve(paletteFile.name.removeSuffix(".palette.json") + ".theme.json")
+                .writeText(JsonOutput.prettyPrint(JsonOutput.toJson(theme)) + "\n")
+        }
+
+        // Likewise for editor schemes: each *.xml is identical to the file it
+        // replaced, and the IDE parses it exactly as before.
+        val schemeTemplate = themesDir.resolve("template.xml").readText()
+        val placeholder = Regex("""\$\{([^}]+)}""")
+        themesDir.listFiles { f -> f.name.endsWith(".scheme.json") }!!.forEach { tableFile ->
+            val colors = JsonSlurper().parse(tableFile) as Map<*, *>
+            val scheme = placeholder.replace(schemeTemplate) { match ->
+                val slot = match.groupValues[1]
+                colors[slot]?.toString() ?: throw GradleException("${tableFile.name} has no value for $slot")
+            }
+            targetDir.resolve(tableFile.name.removeSuffix(".scheme.json") + ".xml").writeText(scheme)
+        }
+    }
+}
+
+// Binary index of all themes for BeardedThemeCatalog: names, family, flags and
+// a few representative colors, so the quick switcher opens without parsing any
+// theme or scheme file. Big-endian (DataOutputStream), laid out as
+//   int magic "BTC1", short theme count, then per theme:
+//   UTF slug, UTF name, UTF family, byte flags (1 = dark, 2 = high contrast),
+//   byte swatch count, int RGB per swatch (palette swatches, then scheme swatches)
+val themeCatalogPaletteSwatches = listOf("ui.*.background", "ui.*.foreground", "ui.Button.default.startBackground")
+val themeCatalogSchemeSwatches = listOf("DEFAULT_KEYWORD.FOREGROUND", "DEFAULT_STRING.FOREGROUND", "DEFAULT_CLASS_NAME.FOREGROUND")
+
+val generateThemeCatalog by tasks.registering {
+    description = "Writes the binary theme catalog with the names, flags and swatch colors of all themes."
+    val themesDir = file("src/main/themes")
+    val themeListFile = file("src/main/resources/themes/theme-list.json")
+    val outputDir = layout.buildDirectory.dir("generated/themeCatalog")
+    inputs.dir(themesDir)
+    inputs.file(themeListFile)
+    inputs.property("paletteSwatches", themeCatalogPaletteSwatches)
+    inputs.property("schemeSwatches", themeCatalogSchemeSwatches)
+    outputs.dir(outputDir)
+
+    doLast {
+        val target = outputDir.get().file("themes/catalog.bin").asFile
+        target.parentFile.mkdirs()
+        val themes = JsonSlurper().parse(themeListFile) as List<*>
+        DataOutputStream(target.outputStream().buffered()).use { out ->
+            out.writeInt(0x42544331)
+            out.writeShort(themes.size)
+            for (entry in themes) {
+                val theme = entry as Map<*, *>
+                val slug = theme["slug"] as String
+                val palette = JsonSlurper().parse(themesDir.resolve("$slug.palette.json")) as Map<*, *>
+                val colors = JsonSlurper().parse(themesDir.resolve("$slug.scheme.json")) as Map<*, *>
+                val swatches = themeCatalogPaletteSwatches.map { palette[it] } + themeCatalogSchemeSwatches.map { colors[it] }
+                out.writeUTF(slug)
+                out.writeUTF(theme["name"] as String)
+                out.writeUTF(theme["family"] as String)
+                out.writeByte((if (theme["dark"] == true) 1 else 0) or (if (theme["hc"] == true) 2 else 0))
+                out.writeByte(swatches.size)
+                swatches.forEach { color ->
+                    val hex = (color as? String)?.removePrefix("#") ?: throw GradleException("$slug is missing a swatch color")
+                    out.writeInt(hex.take(6).toInt(16))
+                }
+            }
+        }
+    }
+}
+
+sourceSets {
+    main {
+        resources.srcDir(generateIconAtlas)
+        resources.srcDir(materializeThemes)
+        resources.srcDir(generateThemeCatalog)
+    }
+}
+
+// Microbenchmarks in src/jmh/java: ./gradlew jmh
+// The GC profiler reports allocations per resolved name next to the timings.
+jmh {
+    jmhVersion.set("1.37")
+    profilers.add("gc")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+}
+
 intellij {
     version.set("2024.1")
     type.set("IC")
@@ -51,4 +234,10 @@ tasks {
     buildSearchableOptions {
         enabled = false
     }
+
+    test {
+        // ./gradlew test -PscreenshotDeltaE=2.3 compares screenshots with baselines
+        // by CIE76 color difference instead of the largest channel difference
+        providers.gradleProperty("screenshotDeltaE").orNull?.let { systemProperty("screenshots.deltaE", it) }
+    }
 }
@@ -20,6 +20,7 @@ const fileIcons = [
   ["python", "#3776AB", "Py"],
   ["javascript", "#F7DF1E", "JS"],
   ["typescript", "#3178C6", "TS"],
+  ["typescript_def", "#3178C6", "DTS"],
   ["react", "#61DAFB", "Rx"],
   ["react_ts", "#3178C6", "Tx"],
   ["go", "#00ADD8", "Go"],
@@ -90,6 +91,7 @@ const fileIcons = [
   ["babel", "#F9DC3E", "Bb"],
   ["jest", "#C21325", "Je"],
   ["vitest", "#729B1B", "Vt"],
+  ["test", "#66BB6A", "Tst"],
   ["nodejs", "#339933", "No"],
   ["npm", "#CB3837", "Npm"],
   ["yarn", "#2C8EBB", "Yn"],
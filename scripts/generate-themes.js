@@ -373,97 +373,98 @@ const webDevCodyColors = {
 const webDevCodyLevels = { danger: webDevCodyColors.red, info: webDevCodyColors.blue, success: webDevCodyColors.green, warning: webDevCodyColors.orange };
 
 // ---------------------------------------------------------------------------
-// Theme registry (slug -> name, theme, isLight, isHC)
+// Theme registry (slug -> name, family, theme, isLight, isHC)
+// Families match the groups listed in the plugin.xml description.
 // ---------------------------------------------------------------------------
 
 const themeRegistry = [
   // Classics
-  { slug: "anthracite", name: "Bearded Theme Anthracite", colors: classicsColors, levels: classicsLevels, ui: makeMainColorsDark({ base: "#181a1f", primary: "#a2abb6" }), light: false },
-  { slug: "anthracite-light", name: "Bearded Theme Light", colors: {
+  { slug: "anthracite", name: "Bearded Theme Anthracite", family: "Classics", colors: classicsColors, levels: classicsLevels, ui: makeMainColorsDark({ base: "#181a1f", primary: "#a2abb6" }), light: false },
+  { slug: "anthracite-light", name: "Bearded Theme Light", family: "Classics", colors: {
     blue: "#2a7ec5", green: "#229a54", greenAlt: "#6a8f07", orange: "#c27225",
     pink: "#b44594", purple: "#7d45b5", red: "#b8473e", salmon: "#d0534a",
     turquoize: "#22a5c9", yellow: "#b59b3e",
   }, levels: classicsLevels, ui: makeMainColorsLight({ base: "#f3f4f5", primary: "#22a5c9" }), light: true },
 
   // Arc
-  { slug: "arc", name: "Bearded Theme Arc", colors: arcColors, levels: arcLevels, ui: makeMainColorsDark({ base: "#1c2433", primary: "#8196b5" }), light: false },
-  { slug: "arc-eolstorm", name: "Bearded Theme Arc Eolstorm", colors: arcColors, levels: arcLevels, ui: makeMainColorsDark({ base: "#222A38", primary: "#9DACC3" }), light: false },
-  { slug: "arc-blueberry", name: "Bearded Theme Arc Blueberry", colors: arcColors, levels: arcLevels, ui: makeMainColorsDark({ base: "#111422", primary: "#8eb0e6" }), light: false },
-  { slug: "arc-eggplant", name: "Bearded Theme Arc Eggplant", colors: arcColors, levels: arcLevels, ui: makeMainColorsDark({ base: "#181421", primary: "#9698d8" }), light: false },
-  { slug: "arc-reversed", name: "Bearded Theme Arc Reversed", colors: arcColors, levels: arcLevels, ui: makeMainColorsDark({ base: "#161c28", primary: "#8196b5", reversed: true }), light: false },
+  { slug: "arc", name: "Bearded Theme Arc", family: "Arc", colors: arcColors, levels: arcLevels, ui: makeMainColorsDark({ base: "#1c2433", primary: "#8196b5" }), light: false },
+  { slug: "arc-eolstorm", name: "Bearded Theme Arc Eolstorm", family: "Arc", colors: arcColors, levels: arcLevels, ui: makeMainColorsDark({ base: "#222A38", primary: "#9DACC3" }), light: false },
+  { slug: "arc-blueberry", name: "Bearded Theme Arc Blueberry", family: "Arc", colors: arcColors, levels: arcLevels, ui: makeMainColorsDark({ base: "#111422", primary: "#8eb0e6" }), light: false },
+  { slug: "arc-eggplant", name: "Bearded Theme Arc Eggplant", family: "Arc", colors: arcColors, levels: arcLevels, ui: makeMainColorsDark({ base: "#181421", primary: "#9698d8" }), light: false },
+  { slug: "arc-reversed", name: "Bearded Theme Arc Reversed", family: "Arc", colors: arcColors, levels: arcLevels, ui: makeMainColorsDark({ base: "#161c28", primary: "#8196b5", reversed: true }), light: false },
 
   // Vivid
-  { slug: "vivid-purple", name: "Bearded Theme Vivid Purple", colors: vividColors, levels: vividLevels, ui: makeMainColorsDark({ base: "#171131", primary: "#A680FF" }), light: false },
-  { slug: "vivid-black", name: "Bearded Theme Vivid Black", colors: vividColors, levels: vividLevels, ui: makeMainColorsDark({ base: "#141417", primary: "#AAAAAA" }), light: false },
-  { slug: "vivid-light", name: "Bearded Theme Vivid Light", colors: vividLightColors, levels: vividLevels, ui: makeMainColorsLight({ base: "#f4f4f4", primary: "#7e7e7e" }), light: true },
+  { slug: "vivid-purple", name: "Bearded Theme Vivid Purple", family: "Vivid", colors: vividColors, levels: vividLevels, ui: makeMainColorsDark({ base: "#171131", primary: "#A680FF" }), light: false },
+  { slug: "vivid-black", name: "Bearded Theme Vivid Black", family: "Vivid", colors: vividColors, levels: vividLevels, ui: makeMainColorsDark({ base: "#141417", primary: "#AAAAAA" }), light: false },
+  { slug: "vivid-light", name: "Bearded Theme Vivid Light", family: "Vivid", colors: vividLightColors, levels: vividLevels, ui: makeMainColorsLight({ base: "#f4f4f4", primary: "#7e7e7e" }), light: true },
 
   // Monokai
-  { slug: "monokai-terra", name: "Bearded Theme Monokai Terra", colors: monokaiColors, levels: monokaiLevels, ui: makeMainColorsDark({ base: "#262329", primary: "#b0a2a6" }), light: false },
-  { slug: "monokai-metallian", name: "Bearded Theme Monokai Metallian", colors: monokaiColors, levels: monokaiLevels, ui: makeMainColorsDark({ base: "#1e212b", primary: "#98a2b5" }), light: false },
-  { slug: "monokai-stone", name: "Bearded Theme Monokai Stone", colors: monokaiColors, levels: monokaiLevels, ui: makeMainColorsDark({ base: "#2A2D33", primary: "#9AA2A6" }), light: false },
-  { slug: "monokai-black", name: "Bearded Theme Monokai Black", colors: monokaiColors, levels: monokaiLevels, ui: makeMainColorsDark({ base: "#141414", primary: "#8f8f8f" }), light: false },
-  { slug: "monokai-reversed", name: "Bearded Theme Monokai Reversed", colors: monokaiColors, levels: monokaiLevels, ui: makeMainColorsDark({ base: "#171921", primary: "#98a2b5", reversed: true }), light: false },
+  { slug: "monokai-terra", name: "Bearded Theme Monokai Terra", family: "Monokai", colors: monokaiColors, levels: monokaiLevels, ui: makeMainColorsDark({ base: "#262329", primary: "#b0a2a6" }), light: false },
+  { slug: "monokai-metallian", name: "Bearded Theme Monokai Metallian", family: "Monokai", colors: monokaiColors, levels: monokaiLevels, ui: makeMainColorsDark({ base: "#1e212b", primary: "#98a2b5" }), light: false },
+  { slug: "monokai-stone", name: "Bearded Theme Monokai Stone", family: "Monokai", colors: monokaiColors, levels: monokaiLevels, ui: makeMainColorsDark({ base: "#2A2D33", primary: "#9AA2A6" }), light: false },
+  { slug: "monokai-black", name: "Bearded Theme Monokai Black", family: "Monokai", colors: monokaiColors, levels: monokaiLevels, ui: makeMainColorsDark({ base: "#141414", primary: "#8f8f8f" }), light: false },
+  { slug: "monokai-reversed", name: "Bearded Theme Monokai Reversed", family: "Monokai", colors: monokaiColors, levels: monokaiLevels, ui: makeMainColorsDark({ base: "#171921", primary: "#98a2b5", reversed: true }), light: false },
 
   // Solarized
-  { slug: "solarized-dark", name: "Bearded Theme Solarized Dark", colors: solarizedColors, levels: solarizedLevels, ui: makeMainColorsDark({ base: "#002b36", primary: "#839496" }), light: false },
-  { slug: "solarized-reversed", name: "Bearded Theme Solarized Reversed", colors: solarizedColors, levels: solarizedLevels, ui: makeMainColorsDark({ base: "#00222b", primary: "#839496", reversed: true }), light: false },
-  { slug: "solarized-light", name: "Bearded Theme Solarized Light", colors: solarizedLightColors, levels: solarizedLevels, ui: makeMainColorsLight({ base: "#fdf6e3", primary: "#839496" }), light: true },
+  { slug: "solarized-dark", name: "Bearded Theme Solarized Dark", family: "Solarized", colors: solarizedColors, levels: solarizedLevels, ui: makeMainColorsDark({ base: "#002b36", primary: "#839496" }), light: false },
+  { slug: "solarized-reversed", name: "Bearded Theme Solarized Reversed", family: "Solarized", colors: solarizedColors, levels: solarizedLevels, ui: makeMainColorsDark({ base: "#00222b", primary: "#839496", reversed: true }), light: false },
+  { slug: "solarized-light", name: "Bearded Theme Solarized Light", family: "Solarized", colors: solarizedLightColors, levels: solarizedLevels, ui: makeMainColorsLight({ base: "#fdf6e3", primary: "#839496" }), light: true },
 
   // Oceanic
-  { slug: "oceanic", name: "Bearded Theme Oceanic", colors: oceanicColors, levels: oceanicLevels, ui: makeMainColorsDark({ base: "#1a2b34", primary: "#8fa2a7" }), light: false },
-  { slug: "oceanic-reversed", name: "Bearded Theme Oceanic Reversed", colors: oceanicColors, levels: oceanicLevels, ui: makeMainColorsDark({ base: "#152229", primary: "#8fa2a7", reversed: true }), light: false },
+  { slug: "oceanic", name: "Bearded Theme Oceanic", family: "Oceanic", colors: oceanicColors, levels: oceanicLevels, ui: makeMainColorsDark({ base: "#1a2b34", primary: "#8fa2a7" }), light: false },
+  { slug: "oceanic-reversed", name: "Bearded Theme Oceanic Reversed", family: "Oceanic", colors: oceanicColors, levels: oceanicLevels, ui: makeMainColorsDark({ base: "#152229", primary: "#8fa2a7", reversed: true }), light: false },
 
   // Milkshake
-  { slug: "milkshake-raspberry", name: "Bearded Theme Milkshake Raspberry", colors: milkshakeColors, levels: milkshakeLevels, ui: makeMainColorsLight({ base: "#f1e8eb", primary: "#d1174f", primaryAlt: "#f6eff1" }), light: true },
-  { slug: "milkshake-blueberry", name: "Bearded Theme Milkshake Blueberry", colors: milkshakeColors, levels: milkshakeLevels, ui: makeMainColorsLight({ base: "#dad9eb", primary: "#422eb0" }), light: true },
-  { slug: "milkshake-mango", name: "Bearded Theme Milkshake Mango", colors: milkshakeColors, levels: milkshakeLevels, ui: makeMainColorsLight({ base: "#f3eae3", primary: "#bd4f27" }), light: true },
-  { slug: "milkshake-mint", name: "Bearded Theme Milkshake Mint", colors: milkshakeColors, levels: milkshakeLevels, ui: makeMainColorsLight({ base: "#edf3ee", primary: "#2a9b7d" }), light: true },
-  { slug: "milkshake-vanilla", name: "Bearded Theme Milkshake Vanilla", colors: milkshakeColors, levels: milkshakeLevels, ui: makeMainColorsLight({ base: "#ece7da", primary: "#937416" }), light: true },
+  { slug: "milkshake-raspberry", name: "Bearded Theme Milkshake Raspberry", family: "Milkshake", colors: milkshakeColors, levels: milkshakeLevels, ui: makeMainColorsLight({ base: "#f1e8eb", primary: "#d1174f", primaryAlt: "#f6eff1" }), light: true },
+  { slug: "milkshake-blueberry", name: "Bearded Theme Milkshake Blueberry", family: "Milkshake", colors: milkshakeColors, levels: milkshakeLevels, ui: makeMainColorsLight({ base: "#dad9eb", primary: "#422eb0" }), light: true },
+  { slug: "milkshake-mango", name: "Bearded Theme Milkshake Mango", family: "Milkshake", colors: milkshakeColors, levels: milkshakeLevels, ui: makeMainColorsLight({ base: "#f3eae3", primary: "#bd4f27" }), light: true },
+  { slug: "milkshake-mint", name: "Bearded Theme Milkshake Mint", family: "Milkshake", colors: milkshakeColors, levels: milkshakeLevels, ui: makeMainColorsLight({ base: "#edf3ee", primary: "#2a9b7d" }), light: true },
+  { slug: "milkshake-vanilla", name: "Bearded Theme Milkshake Vanilla", family: "Milkshake", colors: milkshakeColors, levels: milkshakeLevels, ui: makeMainColorsLight({ base: "#ece7da", primary: "#937416" }), light: true },
 
   // Black & Gems
-  { slug: "black-gold", name: "Bearded Theme Black & Gold", colors: blackColors, levels: blackLevels, ui: makeMainColorsDark({ base: "#111418", primary: "#EACD61" }), light: false },
-  { slug: "black-gold-soft", name: "Bearded Theme Black & Gold Soft", colors: blackColors, levels: blackLevels, ui: makeMainColorsDark({ base: "#15151a", primary: "#EACD61" }), light: false },
-  { slug: "black-ruby", name: "Bearded Theme Black & Ruby", colors: blackColors, levels: blackLevels, ui: makeMainColorsDark({ base: "#111418", primary: "#FF738A" }), light: false },
-  { slug: "black-ruby-soft", name: "Bearded Theme Black & Ruby Soft", colors: blackColors, levels: blackLevels, ui: makeMainColorsDark({ base: "#171518", primary: "#FF738A" }), light: false },
-  { slug: "black-emerald", name: "Bearded Theme Black & Emerald", colors: blackColors, levels: blackLevels, ui: makeMainColorsDark({ base: "#111418", primary: "#22ECDB" }), light: false },
-  { slug: "black-emerald-soft", name: "Bearded Theme Black & Emerald Soft", colors: blackColors, levels: blackLevels, ui: makeMainColorsDark({ base: "#131518", primary: "#22ECDB" }), light: false },
-  { slug: "black-diamond", name: "Bearded Theme Black & Diamond", colors: blackColors, levels: blackLevels, ui: makeMainColorsDark({ base: "#111418", primary: "#69C3FF" }), light: false },
-  { slug: "black-diamond-soft", name: "Bearded Theme Black & Diamond Soft", colors: blackColors, levels: blackLevels, ui: makeMainColorsDark({ base: "#131518", primary: "#69C3FF" }), light: false },
-  { slug: "black-amethyst", name: "Bearded Theme Black & Amethyst", colors: blackColors, levels: blackLevels, ui: makeMainColorsDark({ base: "#111418", primary: "#B78AFF" }), light: false },
-  { slug: "black-amethyst-soft", name: "Bearded Theme Black & Amethyst Soft", colors: blackColors, levels: blackLevels, ui: makeMainColorsDark({ base: "#151418", primary: "#B78AFF" }), light: false },
+  { slug: "black-gold", name: "Bearded Theme Black & Gold", family: "Black & Gems", colors: blackColors, levels: blackLevels, ui: makeMainColorsDark({ base: "#111418", primary: "#EACD61" }), light: false },
+  { slug: "black-gold-soft", name: "Bearded Theme Black & Gold Soft", family: "Black & Gems", colors: blackColors, levels: blackLevels, ui: makeMainColorsDark({ base: "#15151a", primary: "#EACD61" }), light: false },
+  { slug: "black-ruby", name: "Bearded Theme Black & Ruby", family: "Black & Gems", colors: blackColors, levels: blackLevels, ui: makeMainColorsDark({ base: "#111418", primary: "#FF738A" }), light: false },
+  { slug: "black-ruby-soft", name: "Bearded Theme Black & Ruby Soft", family: "Black & Gems", colors: blackColors, levels: blackLevels, ui: makeMainColorsDark({ base: "#171518", primary: "#FF738A" }), light: false },
+  { slug: "black-emerald", name: "Bearded Theme Black & Emerald", family: "Black & Gems", colors: blackColors, levels: blackLevels, ui: makeMainColorsDark({ base: "#111418", primary: "#22ECDB" }), light: false },
+  { slug: "black-emerald-soft", name: "Bearded Theme Black & Emerald Soft", family: "Black & Gems", colors: blackColors, levels: blackLevels, ui: makeMainColorsDark({ base: "#131518", primary: "#22ECDB" }), light: false },
+  { slug: "black-diamond", name: "Bearded Theme Black & Diamond", family: "Black & Gems", colors: blackColors, levels: blackLevels, ui: makeMainColorsDark({ base: "#111418", primary: "#69C3FF" }), light: false },
+  { slug: "black-diamond-soft", name: "Bearded Theme Black & Diamond Soft", family: "Black & Gems", colors: blackColors, levels: blackLevels, ui: makeMainColorsDark({ base: "#131518", primary: "#69C3FF" }), light: false },
+  { slug: "black-amethyst", name: "Bearded Theme Black & Amethyst", family: "Black & Gems", colors: blackColors, levels: blackLevels, ui: makeMainColorsDark({ base: "#111418", primary: "#B78AFF" }), light: false },
+  { slug: "black-amethyst-soft", name: "Bearded Theme Black & Amethyst Soft", family: "Black & Gems", colors: blackColors, levels: blackLevels, ui: makeMainColorsDark({ base: "#151418", primary: "#B78AFF" }), light: false },
 
   // Aquarelle
-  { slug: "aquarelle-cymbidium", name: "Bearded Theme Aquarelle Cymbidium", colors: aquarelleColors, levels: aquarelleLevels, ui: makeMainColorsDark({ base: "#2c252a", primary: "#da6e6c" }), light: false },
-  { slug: "aquarelle-hydrangea", name: "Bearded Theme Aquarelle Hydrangea", colors: aquarelleColors, levels: aquarelleLevels, ui: makeMainColorsDark({ base: "#22273c", primary: "#6394f1" }), light: false },
-  { slug: "aquarelle-lilac", name: "Bearded Theme Aquarelle Lilac", colors: aquarelleColors, levels: aquarelleLevels, ui: makeMainColorsDark({ base: "#252433", primary: "#9587ff" }), light: false },
+  { slug: "aquarelle-cymbidium", name: "Bearded Theme Aquarelle Cymbidium", family: "Aquarelle", colors: aquarelleColors, levels: aquarelleLevels, ui: makeMainColorsDark({ base: "#2c252a", primary: "#da6e6c" }), light: false },
+  { slug: "aquarelle-hydrangea", name: "Bearded Theme Aquarelle Hydrangea", family: "Aquarelle", colors: aquarelleColors, levels: aquarelleLevels, ui: makeMainColorsDark({ base: "#22273c", primary: "#6394f1" }), light: false },
+  { slug: "aquarelle-lilac", name: "Bearded Theme Aquarelle Lilac", family: "Aquarelle", colors: aquarelleColors, levels: aquarelleLevels, ui: makeMainColorsDark({ base: "#252433", primary: "#9587ff" }), light: false },
 
   // HC
-  { slug: "hc-ebony", name: "Bearded Theme HC Ebony", colors: hcColors, levels: hcLevels, ui: makeMainColorsDark({ base: "#181820", primary: "#c2c8d7" }), light: false, hc: true },
-  { slug: "hc-midnightvoid", name: "Bearded Theme HC Midnight Void", colors: hcColors, levels: hcLevels, ui: makeMainColorsDark({ base: "#151f27", primary: "#99b3c9" }), light: false, hc: true },
-  { slug: "hc-wonderlandwood", name: "Bearded Theme HC Wonderland Wood", colors: hcColors, levels: hcLevels, ui: makeMainColorsDark({ base: "#1F1D36", primary: "#bdb5d6" }), light: false, hc: true },
-  { slug: "hc-brewingstorm", name: "Bearded Theme HC Brewing Storm", colors: hcColors, levels: hcLevels, ui: makeMainColorsDark({ base: "#0c2a42", primary: "#8fb8d8" }), light: false, hc: true },
-  { slug: "hc-flurry", name: "Bearded Theme HC Flurry", colors: {
+  { slug: "hc-ebony", name: "Bearded Theme HC Ebony", family: "High Contrast", colors: hcColors, levels: hcLevels, ui: makeMainColorsDark({ base: "#181820", primary: "#c2c8d7" }), light: false, hc: true },
+  { slug: "hc-midnightvoid", name: "Bearded Theme HC Midnight Void", family: "High Contrast", colors: hcColors, levels: hcLevels, ui: makeMainColorsDark({ base: "#151f27", primary: "#99b3c9" }), light: false, hc: true },
+  { slug: "hc-wonderlandwood", name: "Bearded Theme HC Wonderland Wood", family: "High Contrast", colors: hcColors, levels: hcLevels, ui: makeMainColorsDark({ base: "#1F1D36", primary: "#bdb5d6" }), light: false, hc: true },
+  { slug: "hc-brewingstorm", name: "Bearded Theme HC Brewing Storm", family: "High Contrast", colors: hcColors, levels: hcLevels, ui: makeMainColorsDark({ base: "#0c2a42", primary: "#8fb8d8" }), light: false, hc: true },
+  { slug: "hc-flurry", name: "Bearded Theme HC Flurry", family: "High Contrast", colors: {
     blue: "#0076c5", green: "#008b17", greenAlt: "#668b07", orange: "#b96000",
     pink: "#c121a4", purple: "#7522d3", red: "#d12525", salmon: "#da2a5f",
     turquoize: "#008f8f", yellow: "#c08403",
   }, levels: hcLevels, ui: makeMainColorsLight({ base: "#f5f8fc", primary: "#3a6fa5" }), light: true, hc: true },
-  { slug: "minuit", name: "Bearded Theme Minuit", colors: hcColors, levels: hcLevels, ui: makeMainColorsDark({ base: "#1C1827", primary: "#b2a9cb" }), light: false },
-  { slug: "chocolate-espresso", name: "Bearded Theme Chocolate Espresso", colors: hcColors, levels: hcLevels, ui: makeMainColorsDark({ base: "#2e2424", primary: "#c0a9a9" }), light: false },
+  { slug: "minuit", name: "Bearded Theme Minuit", family: "Special", colors: hcColors, levels: hcLevels, ui: makeMainColorsDark({ base: "#1C1827", primary: "#b2a9cb" }), light: false },
+  { slug: "chocolate-espresso", name: "Bearded Theme Chocolate Espresso", family: "Special", colors: hcColors, levels: hcLevels, ui: makeMainColorsDark({ base: "#2e2424", primary: "#c0a9a9" }), light: false },
 
   // Stained
-  { slug: "stained-purple", name: "Bearded Theme Stained Purple", colors: stainedColors, levels: stainedLevels, ui: makeMainColorsDark({ base: "#20192b", primary: "#a948ef" }), light: false },
-  { slug: "stained-blue", name: "Bearded Theme Stained Blue", colors: stainedColors, levels: stainedLevels, ui: makeMainColorsDark({ base: "#121726", primary: "#3A7FFF" }), light: false },
+  { slug: "stained-purple", name: "Bearded Theme Stained Purple", family: "Stained", colors: stainedColors, levels: stainedLevels, ui: makeMainColorsDark({ base: "#20192b", primary: "#a948ef" }), light: false },
+  { slug: "stained-blue", name: "Bearded Theme Stained Blue", family: "Stained", colors: stainedColors, levels: stainedLevels, ui: makeMainColorsDark({ base: "#121726", primary: "#3A7FFF" }), light: false },
 
   // Surprising
-  { slug: "surprising-eggplant", name: "Bearded Theme Surprising Eggplant", colors: { ...surprisingBaseColors, turquoize: "#d24e4e", yellow: "#d1a456" }, levels: surprisingLevels, ui: makeMainColorsDark({ base: "#1d1426", primary: "#d24e4e" }), light: false },
-  { slug: "surprising-blueberry", name: "Bearded Theme Surprising Blueberry", colors: { ...surprisingBaseColors, turquoize: "#c93e71", yellow: "#d1a456" }, levels: surprisingLevels, ui: makeMainColorsDark({ base: "#101a29", primary: "#c93e71" }), light: false },
-  { slug: "surprising-watermelon", name: "Bearded Theme Surprising Watermelon", colors: { ...surprisingBaseColors, turquoize: "#da6c62", yellow: "#d1a456" }, levels: surprisingLevels, ui: makeMainColorsDark({ base: "#142326", primary: "#da6c62" }), light: false },
+  { slug: "surprising-eggplant", name: "Bearded Theme Surprising Eggplant", family: "Surprising", colors: { ...surprisingBaseColors, turquoize: "#d24e4e", yellow: "#d1a456" }, levels: surprisingLevels, ui: makeMainColorsDark({ base: "#1d1426", primary: "#d24e4e" }), light: false },
+  { slug: "surprising-blueberry", name: "Bearded Theme Surprising Blueberry", family: "Surprising", colors: { ...surprisingBaseColors, turquoize: "#c93e71", yellow: "#d1a456" }, levels: surprisingLevels, ui: makeMainColorsDark({ base: "#101a29", primary: "#c93e71" }), light: false },
+  { slug: "surprising-watermelon", name: "Bearded Theme Surprising Watermelon", family: "Surprising", colors: { ...surprisingBaseColors, turquoize: "#da6c62", yellow: "#d1a456" }, levels: surprisingLevels, ui: makeMainColorsDark({ base: "#142326", primary: "#da6c62" }), light: false },
 
   // Colorblind
-  { slug: "colorblind", name: "Bearded Theme Colorblind", colors: colorblindColors, levels: colorblindLevels, ui: makeMainColorsDark({ base: "#1b1e28", primary: "#9887eb" }), light: false },
+  { slug: "colorblind", name: "Bearded Theme Colorblind", family: "Special", colors: colorblindColors, levels: colorblindLevels, ui: makeMainColorsDark({ base: "#1b1e28", primary: "#9887eb" }), light: false },
 
   // OLED
-  { slug: "oled", name: "Bearded Theme OLED", colors: oledColors, levels: oledLevels, ui: {
+  { slug: "oled", name: "Bearded Theme OLED", family: "Special", colors: oledColors, levels: oledLevels, ui: {
     border: lighten("#000000", 10),
     default: lighten("#000000", 4),
     defaultalt: lighten("#000000", 8),
@@ -478,12 +479,12 @@ const themeRegistry = [
   }, light: false },
 
   // Exotic
-  { slug: "earth", name: "Bearded Theme Earth", colors: earthColors, levels: earthLevels, ui: makeMainColorsDark({ base: "#221b1b", primary: "#d35386" }), light: false },
-  { slug: "coffee", name: "Bearded Theme Coffee", colors: coffeeColors, levels: coffeeLevels, ui: makeMainColorsDark({ base: "#292423", primary: "#F09177" }), light: false },
-  { slug: "coffee-reversed", name: "Bearded Theme Coffee Reversed", colors: coffeeColors, levels: coffeeLevels, ui: makeMainColorsDark({ base: "#231e1d", primary: "#F09177", reversed: true }), light: false },
-  { slug: "coffee-cream", name: "Bearded Theme Coffee Cream", colors: coffeeLightColors, levels: coffeeLevels, ui: makeMainColorsLight({ base: "#EAE4E1", primary: "#c27225" }), light: true },
-  { slug: "voided", name: "Bearded Theme Voided", colors: voidedColors, levels: voidedLevels, ui: makeMainColorsDark({ base: "#101023", primary: "#7A63ED" }), light: false },
-  { slug: "altica", name: "Bearded Theme Altica", colors: alticaColors, levels: alticaLevels, ui: {
+  { slug: "earth", name: "Bearded Theme Earth", family: "Exotic", colors: earthColors, levels: earthLevels, ui: makeMainColorsDark({ base: "#221b1b", primary: "#d35386" }), light: false },
+  { slug: "coffee", name: "Bearded Theme Coffee", family: "Exotic", colors: coffeeColors, levels: coffeeLevels, ui: makeMainColorsDark({ base: "#292423", primary: "#F09177" }), light: false },
+  { slug: "coffee-reversed", name: "Bearded Theme Coffee Reversed", family: "Exotic", colors: coffeeColors, levels: coffeeLevels, ui: makeMainColorsDark({ base: "#231e1d", primary: "#F09177", reversed: true }), light: false },
+  { slug: "coffee-cream", name: "Bearded Theme Coffee Cream", family: "Exotic", colors: coffeeLightColors, levels: coffeeLevels, ui: makeMainColorsLight({ base: "#EAE4E1", primary: "#c27225" }), light: true },
+  { slug: "voided", name: "Bearded Theme Voided", family: "Exotic", colors: voidedColors, levels: voidedLevels, ui: makeMainColorsDark({ base: "#101023", primary: "#7A63ED" }), light: false },
+  { slug: "altica", name: "Bearded Theme Altica", family: "Exotic", colors: alticaColors, levels: alticaLevels, ui: {
     border: "#2C3543",
     default: "#232D3B",
     defaultalt: "#354357",
@@ -498,12 +499,12 @@ const themeRegistry = [
   }, light: false },
 
   // Feat
-  { slug: "will", name: "Bearded Theme Will", colors: willColors, levels: willLevels, ui: makeMainColorsDark({ base: "#17171f", primary: "#8f9eb8" }), light: false },
-  { slug: "gold-d-raynh", name: "Bearded Theme Gold D Raynh", colors: goldDColors, levels: goldDLevels, ui: makeMainColorsDark({ base: "#0f1628", primary: "#e39000" }), light: false },
-  { slug: "gold-d-raynh-light", name: "Bearded Theme Gold D Raynh Light", colors: goldLightColors, levels: goldDLevels, ui: makeMainColorsLight({ base: "#f5f5f5", primary: "#2397e5" }), light: true },
-  { slug: "melle-julie", name: "Bearded Theme Melle Julie", colors: melleJulieColors, levels: melleJulieLevels, ui: makeMainColorsDark({ base: "#1c1f24", primary: "#63edef" }), light: false },
-  { slug: "melle-julie-light", name: "Bearded Theme Melle Julie Light", colors: melleJulieLightColors, levels: melleJulieLevels, ui: makeMainColorsLight({ base: "#edeeee", primary: "#218d8f" }), light: true },
-  { slug: "webdevcody", name: "Bearded Theme WebDevCody", colors: webDevCodyColors, levels: webDevCodyLevels, ui: makeMainColorsDark({ base: "#00171e", primary: "#e95d74" }), light: false },
+  { slug: "will", name: "Bearded Theme Will", family: "Featured", colors: willColors, levels: willLevels, ui: makeMainColorsDark({ base: "#17171f", primary: "#8f9eb8" }), light: false },
+  { slug: "gold-d-raynh", name: "Bearded Theme Gold D Raynh", family: "Featured", colors: goldDColors, levels: goldDLevels, ui: makeMainColorsDark({ base: "#0f1628", primary: "#e39000" }), light: false },
+  { slug: "gold-d-raynh-light", name: "Bearded Theme Gold D Raynh Light", family: "Featured", colors: goldLightColors, levels: goldDLevels, ui: makeMainColorsLight({ base: "#f5f5f5", primary: "#2397e5" }), light: true },
+  { slug: "melle-julie", name: "Bearded Theme Melle Julie", family: "Featured", colors: melleJulieColors, levels: melleJulieLevels, ui: makeMainColorsDark({ base: "#1c1f24", primary: "#63edef" }), light: false },
+  { slug: "melle-julie-light", name: "Bearded Theme Melle Julie Light", family: "Featured", colors: melleJulieLightColors, levels: melleJulieLevels, ui: makeMainColorsLight({ base: "#edeeee", primary: "#218d8f" }), light: true },
+  { slug: "webdevcody", name: "Bearded Theme WebDevCody", family: "Featured", colors: webDevCodyColors, levels: webDevCodyLevels, ui: makeMainColorsDark({ base: "#00171e", primary: "#e95d74" }), light: false },
 ];
 
 // ---------------------------------------------------------------------------
@@ -1944,36 +1945,158 @@ function generateEditorSchemeXml(entry) {
 `;
 }
 
+// ---------------------------------------------------------------------------
+// Compact theme format
+// ---------------------------------------------------------------------------
+
+/**
+ * Splits the generated theme objects into a template and per-theme palettes.
+ * Values that are the same in every theme stay in the template; every other
+ * value becomes a "$slot" placeholder, where keys that take the same value in
+ * every theme share one slot named after the first such key.
+ */
+function compactThemes(themes) {
+  const leafPaths = [];
+  (function walk(obj, prefix) {
+    for (const [key, value] of Object.entries(obj)) {
+      const p = [...prefix, key];
+      if (value && typeof value === "object" && !Array.isArray(value)) walk(value, p);
+      else leafPaths.push(p);
+    }
+  })(themes[0], []);
+
+  const shape = (obj) => JSON.stringify(obj, (k, v) => (v && typeof v === "object" && !Array.isArray(v)) ? v : 0);
+  for (const theme of themes) {
+    if (shape(theme) !== shape(themes[0])) {
+      throw new Error(`Theme "${theme.name}" does not share the key structure of "${themes[0].name}"`);
+    }
+  }
+
+  const get = (obj, p) => p.reduce((o, k) => o[k], obj);
+  const template = JSON.parse(JSON.stringify(themes[0]));
+  const palettes = themes.map(() => ({}));
+  const slots = new Map();
+  for (const p of leafPaths) {
+    const values = themes.map(t => get(t, p));
+    const signature = JSON.stringify(values);
+    if (values.every(v => JSON.stringify(v) === JSON.stringify(values[0]))) continue;
+    let slot = slots.get(signature);
+    if (!slot) {
+      slot = p.join(".");
+      slots.set(signature, slot);
+      values.forEach((v, i) => { palettes[i][slot] = v; });
+    }
+    get(template, p.slice(0, -1))[p[p.length - 1]] = "$" + slot;
+  }
+  return { template, palettes };
+}
+
+/**
+ * Splits the generated editor schemes into an XML template and per-theme
+ * color tables. The schemes share their markup and differ only in quoted
+ * attribute values and the originalScheme text; every value that is not the
+ * same in all schemes becomes a "${slot}" placeholder. Slots are named after
+ * the option they belong to (DEFAULT_KEYWORD.FOREGROUND, CARET_COLOR, ...),
+ * and options that take the same value in every scheme share one slot.
+ */
+function compactSchemes(schemes) {
+  // Quoted attribute values and non-blank element text are the variable parts.
+  const split = (xml) => xml.split(/("[^"]*"|>[^<]*[^<\s][^<]*<)/);
+  const tokens = schemes.map(split);
+  const markup = (t) => t.filter((_, i) => i % 2 === 0).join("\u0000");
+  for (let s = 1; s < tokens.length; s++) {
+    if (tokens[s].length !== tokens[0].length || markup(tokens[s]) !== markup(tokens[0])) {
+      throw new Error(`Editor scheme ${s} does not share the markup of the first scheme`);
+    }
+  }
+
+  const template = [...tokens[0]];
+  const tables = schemes.map(() => ({}));
+  const slots = new Map();
+  const used = new Set();
+  let attribute = null;
+  for (let i = 1; i < template.length; i += 2) {
+    const before = template[i - 1];
+    if (before.includes("</value>")) attribute = null;
+    const attr = /(\w+)=$/.exec(before);
+    // An attribute option opens a <value> block of nested options.
+    if (attr && attr[1] === "name" && template[i + 1].startsWith(">")) attribute = tokens[0][i].slice(1, -1);
+
+    const values = tokens.map(t => t[i].slice(1, -1));
+    if (values.every(v => v === values[0])) continue;
+    const signature = JSON.stringify(values);
+    let slot = slots.get(signature);
+    if (!slot) {
+      let name;
+      if (!attr) name = "originalScheme";
+      else if (attr[1] === "value" && /name=$/.test(template[i - 3])) name = tokens[0][i - 2].slice(1, -1);
+      else name = attr[1];
+      if (attribute && name !== attribute) name = `${attribute}.${name}`;
+      slot = name;
+      for (let n = 2; used.has(slot); n++) slot = `${name}_${n}`;
+      used.add(slot);
+      slots.set(signature, slot);
+      values.forEach((v, s) => { tables[s][slot] = v; });
+    }
+    template[i] = attr ? `"\${${slot}}"` : `>\${${slot}}<`;
+  }
+  return { template: template.join(""), tables };
+}
+
 // ---------------------------------------------------------------------------
 // Main: generate all themes
 // ---------------------------------------------------------------------------
 
 const outDir = path.join(__dirname, "..", "src", "main", "resources", "themes");
 fs.mkdirSync(outDir, { recursive: true });
+const compactDir = path.join(__dirname, "..", "src", "main", "themes");
+fs.mkdirSync(compactDir, { recursive: true });
 
 const generatedThemes = [];
+const themeJsons = [];
+const schemeXmls = [];
 
 for (const entry of themeRegistry) {
-  // Generate theme JSON
-  const themeJson = generateThemeJson(entry);
-  const themeJsonPath = path.join(outDir, `${entry.slug}.theme.json`);
-  fs.writeFileSync(themeJsonPath, JSON.stringify(themeJson, null, 2) + "\n");
+  // Generate theme JSON; written below in compact form
+  themeJsons.push(generateThemeJson(entry));
 
-  // Generate editor color scheme XML
-  const schemeXml = generateEditorSchemeXml(entry);
-  const schemeXmlPath = path.join(outDir, `${entry.slug}.xml`);
-  fs.writeFileSync(schemeXmlPath, schemeXml);
+  // Generate editor color scheme XML; written below in compact form
+  schemeXmls.push(generateEditorSchemeXml(entry));
 
   generatedThemes.push(entry);
   console.log(`Generated: ${entry.name} (${entry.slug})`);
 }
 
-// Generate theme-list.json for tests
+// Write the themes as one shared UI template plus a palette per theme.
+// The materializeThemes Gradle task expands them back into *.theme.json.
+const { template, palettes } = compactThemes(themeJsons);
+fs.writeFileSync(path.join(compactDir, "template.theme.json"), JSON.stringify(template, null, 2) + "\n");
+generatedThemes.forEach((entry, i) => {
+  fs.writeFileSync(
+    path.join(compactDir, `${entry.slug}.palette.json`),
+    JSON.stringify(palettes[i], null, 2) + "\n"
+  );
+});
+
+// Same for the editor schemes: one XML template plus a color table per theme,
+// expanded back into <slug>.xml by the same Gradle task.
+const { template: schemeTemplate, tables } = compactSchemes(schemeXmls);
+fs.writeFileSync(path.join(compactDir, "template.xml"), schemeTemplate);
+generatedThemes.forEach((entry, i) => {
+  fs.writeFileSync(
+    path.join(compactDir, `${entry.slug}.scheme.json`),
+    JSON.stringify(tables[i], null, 2) + "\n"
+  );
+});
+
+// Generate theme-list.json: the theme index read by the tests and, at runtime,
+// by BeardedThemeCatalog
 const themeList = generatedThemes.map(e => ({
   slug: e.slug,
   name: e.name,
   dark: !e.light,
   hc: !!e.hc,
+  family: e.family,
   themeFile: `${e.slug}.theme.json`,
   schemeFile: `${e.slug}.xml`,
 }));
@@ -0,0 +1,124 @@
+package dev.jetplugins.beardedtheme;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolution cost of {@link BeardedIconIndex} over synthetic project trees.
+ *
+ * Each tree is an array of generated names, {@code treeSize} long, that all
+ * take the path selected by {@code path}: an exact file name, a glob rule,
+ * an extension, a folder name, or a miss. Every name is a distinct string:
+ * exact file and folder names come in varying letter case, which the index
+ * ignores, and glob and extension names are built around generated stems.
+ * Every invocation resolves the next name in the array, so the large trees
+ * also exercise the index with a cold CPU cache rather than a single hot name.
+ *
+ * Run with {@code ./gradlew jmh}; the GC profiler is enabled in the build,
+ * so {@code gc.alloc.rate.norm} gives the bytes allocated per lookup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IconIndexBenchmark {
+
+    private static final String[] EXACT = {
+        "package.json", "README.md", "Dockerfile", ".gitignore", "Makefile", "Cargo.toml",
+        "build.gradle.kts", "tsconfig.json", "LICENSE", ".editorconfig", "go.mod", "pom.xml"
+    };
+    // Glob rule matches with the stem in place of the "*".
+    private static final String[] PATTERN = {
+        "docker-compose.*.yml", ".env.*", "tsconfig.*.json", "vite.config.*",
+        "*.config.js", ".eslintrc.*", "requirements-*.txt", "webpack.*.js"
+    };
+    private static final String[] EXTENSIONS = {
+        "java", "kt", "ts", "tsx", "js", "py", "go", "rs", "css", "scss", "html", "md",
+        "yml", "json", "xml", "sql", "d.ts", "test.tsx", "spec.js", "tar.gz"
+    };
+    private static final String[] UNKNOWN_EXTENSIONS = {"bak", "orig", "tmp1", "xyz", "dat0", "qwe"};
+    private static final String[] FOLDERS = {
+        "src", "test", "tests", "lib", "docs", "assets", "components", "node_modules",
+        "build", "dist", "config", "scripts", "public", ".github", "images", "utils"
+    };
+    private static final String[] STEMS = {
+        "index", "main", "App", "UserService", "button", "utils", "api_client", "HomePage",
+        "schema", "routes", "store", "theme", "Parser", "helpers", "constants", "models"
+    };
+
+    @Param({"10000", "100000", "1000000"})
+    public int treeSize;
+
+    @Param({"exact", "pattern", "extension", "folder", "miss"})
+    public String path;
+
+    private BeardedIconIndex index;
+    private String[] names;
+    private boolean folders;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        index = BeardedIconIndex.getDefault();
+        Random random = new Random(42);
+        names = new String[treeSize];
+        for (int i = 0; i < treeSize; i++) {
+            names[i] = name(random, i);
+        }
+        folders = "folder".equals(path);
+        cursor = 0;
+    }
+
+    private String name(Random random, int i) {
+        switch (path) {
+            case "exact":
+                return mixedCase(random, EXACT[random.nextInt(EXACT.length)]);
+            case "pattern":
+                return PATTERN[random.nextInt(PATTERN.length)].replace("*", stem(random, i));
+            case "extension":
+                return stem(random, i) + "." + EXTENSIONS[random.nextInt(EXTENSIONS.length)];
+            case "folder":
+                return mixedCase(random, FOLDERS[random.nextInt(FOLDERS.length)]);
+            default:
+                return stem(random, i) + "." + UNKNOWN_EXTENSIONS[random.nextInt(UNKNOWN_EXTENSIONS.length)];
+        }
+    }
+
+    private static String stem(Random random, int i) {
+        // Distinct strings per node, like a real tree, rather than a handful
+        // of interned constants.
+        return STEMS[random.nextInt(STEMS.length)] + (i % 97 == 0 ? "" : Integer.toString(i % 1000));
+    }
+
+    private static String mixedCase(Random random, String name) {
+        // A new string per node, with some letters flipped to upper case so
+        // that the names differ but still resolve the same way.
+        char[] chars = name.toCharArray();
+        for (int j = 0; j < chars.length; j++) {
+            if (random.nextInt(4) == 0) {
+                chars[j] = Character.toUpperCase(chars[j]);
+            }
+        }
+        return new String(chars);
+    }
+
+    private String next() {
+        String name = names[cursor];
+        cursor = cursor + 1 == names.length ? 0 : cursor + 1;
+        return name;
+    }
+
+    @Benchmark
+    public String resolve() {
+        String name = next();
+        return folders ? index.folderIconId(name) : index.fileIconId(name);
+    }
+}
@@ -0,0 +1,289 @@
+package dev.jetplugins.beardedtheme;
+
+import com.intellij.ide.ui.LafManager;
+import com.intellij.ide.ui.LafManagerListener;
+import com.intellij.ide.ui.laf.UIThemeLookAndFeelInfo;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.editor.DefaultLanguageHighlighterColors;
+import com.intellij.openapi.editor.colors.EditorColors;
+import com.intellij.openapi.editor.colors.EditorColorsManager;
+import com.intellij.openapi.editor.colors.EditorColorsScheme;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.startup.ProjectActivity;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import kotlin.Unit;
+import kotlin.coroutines.Continuation;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Switches between the configured light and dark Bearded themes, either
+ * following the OS appearance or on a daily schedule.
+ *
+ * Following the OS is delegated to the IDE's own theme autodetection, with
+ * the two Bearded themes as its preferred light and dark themes. The
+ * schedule is checked against the wall clock at the next day or night start
+ * and at least once every {@link #CHECK_PERIOD_MS}, so a timer that was
+ * delayed by sleep or suspend, or a changed clock, is caught up within a
+ * minute. The theme is only switched when the due period changes, so a
+ * theme picked by hand stays until the next day or night start.
+ *
+ * Whichever of the two themes is not active is prepared in the background:
+ * its Look and Feel is resolved, its editor scheme is loaded and its colors
+ * read, and its tinted icons are computed, so the switch itself does not
+ * parse any of them on the EDT.
+ *
+ * Switching starts once the first project has opened.
+ */
+public final class BeardedAutoSwitcher implements ProjectActivity, BeardedThemeSettingsListener, LafManagerListener {
+
+    private static final Logger LOG = Logger.getInstance(BeardedAutoSwitcher.class);
+
+    // Known light/dark counterparts, suggested when one of them is picked.
+    private static final Map<String, String> PAIRS = Map.of(
+        "anthracite", "anthracite-light",
+        "coffee", "coffee-cream",
+        "gold-d-raynh", "gold-d-raynh-light",
+        "vivid-black", "vivid-light",
+        "melle-julie", "melle-julie-light",
+        "solarized-dark", "solarized-light");
+
+    private static final long CHECK_PERIOD_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final AtomicBoolean STARTED = new AtomicBoolean();
+
+    // Guarded by the class. Cancelling bumps the generation, so a check
+    // that is already running does not schedule another one.
+    private static ScheduledFuture<?> scheduled;
+    private static int generation;
+    // Slug of the theme the schedule last switched to.
+    private static String lastDue;
+
+    @Nullable
+    @Override
+    public Object execute(@NotNull Project project, @NotNull Continuation<? super Unit> continuation) {
+        if (STARTED.compareAndSet(false, true)) {
+            update();
+        }
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public void settingsChanged(@NotNull BeardedThemeSettings.Snapshot oldSettings,
+                                @NotNull BeardedThemeSettings.Snapshot newSettings) {
+        if (!oldSettings.hasSameAutoSwitch(newSettings)) {
+            if (oldSettings.getAutoSwitch() == BeardedThemeSettings.AutoSwitch.FOLLOW_SYSTEM
+                && newSettings.getAutoSwitch() != BeardedThemeSettings.AutoSwitch.FOLLOW_SYSTEM) {
+                LafManager.getInstance().setAutodetect(false);
+            }
+            update();
+        }
+    }
+
+    @Override
+    public void lookAndFeelChanged(@NotNull LafManager source) {
+        BeardedThemeSettings.Snapshot settings = BeardedThemeSettings.snapshot();
+        if (settings.getAutoSwitch() != BeardedThemeSettings.AutoSwitch.OFF) {
+            prewarmInactive(settings);
+        }
+    }
+
+    /**
+     * Returns the known light or dark counterpart of {@code slug}, or
+     * {@code null} if it has none.
+     */
+    @Nullable
+    static String counterpart(@NotNull String slug) {
+        String light = PAIRS.get(slug);
+        if (light != null) {
+            return light;
+        }
+        for (Map.Entry<String, String> pair : PAIRS.entrySet()) {
+            if (pair.getValue().equals(slug)) {
+                return pair.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Applies the current auto-switch settings: configures OS following or
+     * switches to the theme due now and starts checking the schedule.
+     */
+    static synchronized void update() {
+        cancel();
+        BeardedThemeSettings.Snapshot settings = BeardedThemeSettings.snapshot();
+        BeardedThemeCatalog.Theme light = theme(settings.getLightTheme(), false);
+        BeardedThemeCatalog.Theme dark = theme(settings.getDarkTheme(), true);
+        if (settings.getAutoSwitch() == BeardedThemeSettings.AutoSwitch.OFF || light == null || dark == null) {
+            return;
+        }
+
+        if (settings.getAutoSwitch() == BeardedThemeSettings.AutoSwitch.FOLLOW_SYSTEM) {
+            ApplicationManager.getApplication().invokeLater(() -> followSystem(light, dark));
+        } else {
+            lastDue = null;
+            checkSchedule(generation, settings, light, dark);
+        }
+        prewarmInactive(settings);
+    }
+
+    /**
+     * Stops the schedule so the plugin can be unloaded; the next project
+     * open starts switching again.
+     */
+    static synchronized void stop() {
+        STARTED.set(false);
+        cancel();
+    }
+
+    /**
+     * Returns whether {@code minute} (after midnight) falls in the day
+     * period, which may wrap around midnight.
+     */
+    static boolean isDay(int minute, int dayStart, int nightStart) {
+        if (dayStart <= nightStart) {
+            return minute >= dayStart && minute < nightStart;
+        }
+        return minute >= dayStart || minute < nightStart;
+    }
+
+    /**
+     * Parses {@code HH:mm} into minutes after midnight, or returns -1.
+     */
+    static int parseTime(@NotNull String text) {
+        String[] parts = text.trim().split(":");
+        if (parts.length != 2) {
+            return -1;
+        }
+        try {
+            int hours = Integer.parseInt(parts[0]);
+            int minutes = Integer.parseInt(parts[1]);
+            return hours >= 0 && hours < 24 && minutes >= 0 && minutes < 60 ? hours * 60 + minutes : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @NotNull
+    static String formatTime(int minute) {
+        return String.format("%02d:%02d", minute / 60, minute % 60);
+    }
+
+    private static void cancel() {
+        generation++;
+        if (scheduled != null) {
+            scheduled.cancel(false);
+            scheduled = null;
+        }
+    }
+
+    /**
+     * Switches to the theme due now if the period has changed since the last
+     * check, then schedules the next check.
+     */
+    private static synchronized void checkSchedule(int expectedGeneration,
+                                                   @NotNull BeardedThemeSettings.Snapshot settings,
+                                                   @NotNull BeardedThemeCatalog.Theme light,
+                                                   @NotNull BeardedThemeCatalog.Theme dark) {
+        if (expectedGeneration != generation) {
+            return;
+        }
+        ZonedDateTime now = ZonedDateTime.now();
+        BeardedThemeCatalog.Theme due = isDay(minuteOfDay(now.toLocalTime()), settings.getDayStart(),
+            settings.getNightStart()) ? light : dark;
+        // The switch itself pre-warms the other theme, see lookAndFeelChanged.
+        if (!due.getSlug().equals(lastDue)) {
+            lastDue = due.getSlug();
+            ApplicationManager.getApplication().invokeLater(() -> BeardedQuickSwitchAction.apply(due));
+        }
+        long untilChange = Duration.between(now, nextChange(now, settings.getDayStart(), settings.getNightStart()))
+            .toMillis();
+        scheduled = AppExecutorUtil.getAppScheduledExecutorService().schedule(
+            () -> checkSchedule(expectedGeneration, settings, light, dark),
+            Math.min(untilChange, CHECK_PERIOD_MS), TimeUnit.MILLISECONDS);
+    }
+
+    private static void followSystem(@NotNull BeardedThemeCatalog.Theme light, @NotNull BeardedThemeCatalog.Theme dark) {
+        LafManager lafManager = LafManager.getInstance();
+        UIThemeLookAndFeelInfo lightLaf = lafManager.findLaf(light.getThemeId());
+        UIThemeLookAndFeelInfo darkLaf = lafManager.findLaf(dark.getThemeId());
+        if (lightLaf == null || darkLaf == null) {
+            return;
+        }
+        if (!lafManager.getAutodetectSupported()) {
+            LOG.info("Bearded Theme: this OS does not report its appearance; not following it");
+            return;
+        }
+        lafManager.setPreferredLightLaf(lightLaf);
+        lafManager.setPreferredDarkLaf(darkLaf);
+        lafManager.setAutodetect(true);
+    }
+
+    private static void prewarmInactive(@NotNull BeardedThemeSettings.Snapshot settings) {
+        UIThemeLookAndFeelInfo laf = LafManager.getInstance().getCurrentUIThemeLookAndFeel();
+        BeardedThemeCatalog.Theme current = BeardedThemeCatalog.byThemeId(laf != null ? laf.getId() : null);
+        String inactive = current != null && current.getSlug().equals(settings.getLightTheme())
+            ? settings.getDarkTheme() : settings.getLightTheme();
+        BeardedThemeCatalog.Theme theme = inactive != null ? BeardedThemeCatalog.bySlug(inactive) : null;
+        if (theme == null) {
+            return;
+        }
+        BeardedIconTinter.prewarm(inactive);
+        AppExecutorUtil.getAppExecutorService().execute(() -> preload(theme));
+    }
+
+    /**
+     * Resolves the Look and Feel of {@code theme} and loads its editor
+     * scheme, which the generator gives the theme's own name.
+     */
+    private static void preload(@NotNull BeardedThemeCatalog.Theme theme) {
+        if (LafManager.getInstance().findLaf(theme.getThemeId()) == null) {
+            return;
+        }
+        EditorColorsScheme scheme = EditorColorsManager.getInstance().getScheme(theme.getName());
+        if (scheme == null) {
+            LOG.info("Bearded Theme: no editor scheme named " + theme.getName() + " to pre-load");
+            return;
+        }
+        // Resolves the inherited attributes and colors the editor reads first.
+        scheme.getDefaultBackground();
+        scheme.getDefaultForeground();
+        scheme.getColor(EditorColors.CARET_ROW_COLOR);
+        scheme.getAttributes(DefaultLanguageHighlighterColors.KEYWORD);
+        scheme.getAttributes(DefaultLanguageHighlighterColors.STRING);
+    }
+
+    @Nullable
+    private static BeardedThemeCatalog.Theme theme(@Nullable String slug, boolean dark) {
+        BeardedThemeCatalog.Theme theme = slug != null ? BeardedThemeCatalog.bySlug(slug) : null;
+        return theme != null && theme.isDark() == dark ? theme : null;
+    }
+
+    private static int minuteOfDay(@NotNull LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    @NotNull
+    private static ZonedDateTime nextChange(@NotNull ZonedDateTime now, int dayStart, int nightStart) {
+        ZonedDateTime day = at(now, dayStart);
+        ZonedDateTime night = at(now, nightStart);
+        return day.isBefore(night) ? day : night;
+    }
+
+    // The next occurrence of minute-of-day strictly after now.
+    @NotNull
+    private static ZonedDateTime at(@NotNull ZonedDateTime now, int minute) {
+        ZonedDateTime time = now.toLocalDate().atTime(minute / 60, minute % 60).atZone(now.getZone());
+        return time.isAfter(now) ? time : time.plusDays(1);
+    }
+}
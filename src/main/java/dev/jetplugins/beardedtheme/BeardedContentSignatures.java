@@ -0,0 +1,143 @@
+package dev.jetplugins.beardedtheme;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps the first bytes of a file to a Bearded icon id: a shebang line is
+ * resolved by its interpreter, anything else by a known magic number.
+ * Used by {@link BeardedContentSniffer} for files without an extension.
+ */
+final class BeardedContentSignatures {
+
+    /** Number of leading bytes the signatures look at. */
+    static final int HEAD_SIZE = 128;
+
+    private static final Map<String, String> INTERPRETERS = new HashMap<>();
+
+    static {
+        for (String shell : new String[]{"sh", "bash", "zsh", "dash", "ksh", "ash", "fish"}) {
+            INTERPRETERS.put(shell, "shell");
+        }
+        INTERPRETERS.put("python", "python");
+        INTERPRETERS.put("pypy", "python");
+        INTERPRETERS.put("node", "javascript");
+        INTERPRETERS.put("nodejs", "javascript");
+        INTERPRETERS.put("bun", "javascript");
+        INTERPRETERS.put("deno", "typescript");
+        INTERPRETERS.put("ts-node", "typescript");
+        INTERPRETERS.put("ruby", "ruby");
+        INTERPRETERS.put("php", "php");
+        INTERPRETERS.put("pwsh", "powershell");
+        INTERPRETERS.put("lua", "lua");
+        INTERPRETERS.put("groovy", "groovy");
+        INTERPRETERS.put("kotlin", "kotlin");
+        INTERPRETERS.put("scala", "scala");
+        INTERPRETERS.put("swift", "swift");
+        INTERPRETERS.put("dart", "dart");
+        INTERPRETERS.put("elixir", "elixir");
+        INTERPRETERS.put("escript", "erlang");
+        INTERPRETERS.put("runhaskell", "haskell");
+        INTERPRETERS.put("Rscript", "r");
+        INTERPRETERS.put("make", "makefile");
+    }
+
+    private static final byte[][] MAGIC = {
+        {(byte) 0x89, 'P', 'N', 'G'},
+        {'G', 'I', 'F', '8'},
+        {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF},
+        {'%', 'P', 'D', 'F', '-'},
+        {'P', 'K', 3, 4},
+        {0x1F, (byte) 0x8B},
+        {'B', 'Z', 'h'},
+        {(byte) 0xFD, '7', 'z', 'X', 'Z', 0},
+        {'7', 'z', (byte) 0xBC, (byte) 0xAF, 0x27, 0x1C},
+        {'S', 'Q', 'L', 'i', 't', 'e', ' ', 'f', 'o', 'r', 'm', 'a', 't', ' ', '3', 0},
+        {'<', '?', 'x', 'm', 'l'},
+        {'<', '?', 'p', 'h', 'p'},
+        {'<', 's', 'v', 'g'},
+        {'-', '-', '-', '-', '-', 'B', 'E', 'G', 'I', 'N', ' '},
+    };
+
+    private static final String[] MAGIC_ICONS = {
+        "image", "image", "image", "pdf", "archive", "archive", "archive", "archive", "archive",
+        "database", "xml", "php", "svg", "key",
+    };
+
+    private BeardedContentSignatures() {
+    }
+
+    /**
+     * Returns the icon id for a file starting with {@code head[0..length)},
+     * or {@code null} if no signature matches.
+     */
+    @Nullable
+    static String detect(byte @NotNull [] head, int length) {
+        int start = hasUtf8Bom(head, length) ? 3 : 0;
+        if (length - start >= 2 && head[start] == '#' && head[start + 1] == '!') {
+            return interpreterIconId(head, start + 2, length);
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (startsWith(head, length, start, MAGIC[i])) {
+                return MAGIC_ICONS[i];
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static String interpreterIconId(byte @NotNull [] head, int from, int length) {
+        int end = from;
+        while (end < length && head[end] != '\n' && head[end] != '\r') {
+            end++;
+        }
+        String[] tokens = new String(head, from, end - from, StandardCharsets.UTF_8).trim().split("\\s+");
+        String command = tokens.length > 0 ? baseName(tokens[0]) : "";
+        if (command.equals("env")) {
+            // #!/usr/bin/env [-S] [VAR=value...] interpreter [args]
+            command = "";
+            for (int i = 1; i < tokens.length; i++) {
+                if (!tokens[i].startsWith("-") && tokens[i].indexOf('=') < 0) {
+                    command = baseName(tokens[i]);
+                    break;
+                }
+            }
+        }
+        return INTERPRETERS.get(stripVersion(command));
+    }
+
+    @NotNull
+    private static String baseName(@NotNull String path) {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    // python3.12 -> python, ruby2.7 -> ruby
+    @NotNull
+    private static String stripVersion(@NotNull String command) {
+        int end = command.length();
+        while (end > 0 && (Character.isDigit(command.charAt(end - 1)) || command.charAt(end - 1) == '.')) {
+            end--;
+        }
+        return command.substring(0, end);
+    }
+
+    private static boolean hasUtf8Bom(byte @NotNull [] head, int length) {
+        return length >= 3 && head[0] == (byte) 0xEF && head[1] == (byte) 0xBB && head[2] == (byte) 0xBF;
+    }
+
+    private static boolean startsWith(byte @NotNull [] head, int length, int start, byte @NotNull [] magic) {
+        if (length - start < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if (head[start + i] != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
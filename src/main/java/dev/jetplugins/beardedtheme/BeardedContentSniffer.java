@@ -0,0 +1,204 @@
+package dev.jetplugins.beardedtheme;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.UserDataHolderEx;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Content-based icons for files without an extension, such as
+ * {@code gradlew}, {@code bin/deploy} or git hooks.
+ *
+ * {@link #getIconId} never touches the disk: it answers from a cache keyed
+ * by path and modification stamp, and on a miss queues the file for a
+ * background read of its first {@link BeardedContentSignatures#HEAD_SIZE}
+ * bytes. Once a queued file turns out to have an icon, the visible rows of
+ * the project view are re-rendered through {@link BeardedProjectViewRefresher}.
+ *
+ * Each project may start {@link #READS_PER_WINDOW} reads per minute, so
+ * opening a huge tree cannot turn into thousands of them at once. Files
+ * over budget are not queued; when the next minute starts the visible rows
+ * are re-rendered, which asks for them again. Results are kept in a bounded
+ * LRU cache.
+ */
+final class BeardedContentSniffer {
+
+    private static final Logger LOG = Logger.getInstance(BeardedContentSniffer.class);
+
+    private static final int READS_PER_WINDOW = 500;
+    private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int MAX_CACHED = 10_000;
+
+    // Marks a result that is still being read, and a file without a signature.
+    private static final String PENDING = "pending";
+    private static final String NO_ICON = "";
+
+    private static final Key<ProjectState> STATE = Key.create("BeardedContentSniffer.state");
+
+    private static final ExecutorService EXECUTOR =
+        AppExecutorUtil.createBoundedApplicationPoolExecutor("Bearded Content Sniffer", 1);
+
+    // Access-ordered, guarded by itself.
+    private static final Map<String, Result> RESULTS = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Result> eldest) {
+            return size() > MAX_CACHED;
+        }
+    };
+
+    private BeardedContentSniffer() {
+    }
+
+    /**
+     * Returns whether {@code file} is a candidate for content sniffing: a
+     * regular file whose name has no extension.
+     */
+    static boolean isCandidate(@NotNull VirtualFile file) {
+        CharSequence name = file.getNameSequence();
+        for (int i = 1; i < name.length(); i++) {
+            if (name.charAt(i) == '.') {
+                return false;
+            }
+        }
+        return !file.isDirectory() && file.isInLocalFileSystem();
+    }
+
+    /**
+     * Returns the sniffed icon id of {@code file}, or {@code null} if it has
+     * none or has not been read yet. Safe to call on the EDT.
+     */
+    @Nullable
+    static String getIconId(@NotNull Project project, @NotNull VirtualFile file) {
+        String path = file.getPath();
+        long stamp = file.getModificationStamp();
+        Result result;
+        synchronized (RESULTS) {
+            result = RESULTS.get(path);
+        }
+        if (result != null && result.stamp == stamp) {
+            return result.iconId == PENDING || result.iconId == NO_ICON ? null : result.iconId;
+        }
+        ProjectState state = stateOf(project);
+        long retryNanos = state.tryRead();
+        if (retryNanos > 0) {
+            scheduleRetry(project, state, retryNanos);
+            return null;
+        }
+        synchronized (RESULTS) {
+            RESULTS.put(path, new Result(stamp, PENDING));
+        }
+        EXECUTOR.execute(() -> sniff(project, file, path, stamp));
+        return null;
+    }
+
+    static void clear() {
+        synchronized (RESULTS) {
+            RESULTS.clear();
+        }
+    }
+
+    /**
+     * Removes the per-project state stored in {@code project}'s user data.
+     */
+    static void forget(@NotNull Project project) {
+        project.putUserData(STATE, null);
+    }
+
+    private static void sniff(@NotNull Project project, @NotNull VirtualFile file, @NotNull String path, long stamp) {
+        String iconId = null;
+        if (file.isValid() && !project.isDisposed()) {
+            byte[] head = new byte[BeardedContentSignatures.HEAD_SIZE];
+            try (InputStream in = file.getInputStream()) {
+                iconId = BeardedContentSignatures.detect(head, in.readNBytes(head, 0, head.length));
+            } catch (IOException e) {
+                LOG.debug("Bearded Theme: cannot read " + path, e);
+            }
+        }
+        synchronized (RESULTS) {
+            RESULTS.put(path, new Result(stamp, iconId != null ? iconId : NO_ICON));
+        }
+        if (iconId != null) {
+            scheduleRefresh(project);
+        }
+    }
+
+    // Coalesces the refreshes of a burst of sniffed files into one.
+    private static void scheduleRefresh(@NotNull Project project) {
+        ProjectState state = stateOf(project);
+        if (!state.refreshQueued.compareAndSet(false, true)) {
+            return;
+        }
+        ApplicationManager.getApplication().invokeLater(() -> {
+            state.refreshQueued.set(false);
+            BeardedProjectViewRefresher.getInstance(project).refreshNow();
+        }, project.getDisposed());
+    }
+
+    // Re-renders the visible rows once the budget allows reads again, so
+    // the files that were turned away are asked for again.
+    private static void scheduleRetry(@NotNull Project project, @NotNull ProjectState state, long delayNanos) {
+        if (state.retryQueued.compareAndSet(false, true)) {
+            AppExecutorUtil.getAppScheduledExecutorService().schedule(() -> {
+                state.retryQueued.set(false);
+                if (!project.isDisposed()) {
+                    scheduleRefresh(project);
+                }
+            }, delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @NotNull
+    private static ProjectState stateOf(@NotNull Project project) {
+        ProjectState state = project.getUserData(STATE);
+        return state != null ? state : ((UserDataHolderEx) project).putUserDataIfAbsent(STATE, new ProjectState());
+    }
+
+    private static final class ProjectState {
+        final AtomicBoolean refreshQueued = new AtomicBoolean();
+        final AtomicBoolean retryQueued = new AtomicBoolean();
+
+        // Guarded by this.
+        private long windowStart = System.nanoTime();
+        private int reads;
+
+        /**
+         * Takes one read from the current window's budget. Returns 0 if the
+         * read may go ahead, otherwise the nanoseconds until the next window.
+         */
+        synchronized long tryRead() {
+            long now = System.nanoTime();
+            if (now - windowStart >= WINDOW_NANOS) {
+                windowStart = now;
+                reads = 0;
+            }
+            if (reads < READS_PER_WINDOW) {
+                reads++;
+                return 0;
+            }
+            return Math.max(1, windowStart + WINDOW_NANOS - now);
+        }
+    }
+
+    private static final class Result {
+        final long stamp;
+        final String iconId;
+
+        Result(long stamp, String iconId) {
+            this.stamp = stamp;
+            this.iconId = iconId;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package dev.jetplugins.beardedtheme;
+
+import com.intellij.ide.plugins.DynamicPluginListener;
+import com.intellij.ide.plugins.IdeaPluginDescriptor;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManager;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Lets the plugin be installed, updated and removed without an IDE restart.
+ *
+ * Extensions, services and listeners declared in plugin.xml are unregistered
+ * by the platform. Before that happens, this drops everything the plugin
+ * handed to platform objects at runtime (the scale listener, project view
+ * viewport listeners, project user data) and empties its static caches, so
+ * nothing keeps the plugin's classloader reachable.
+ */
+public final class BeardedDynamicPluginListener implements DynamicPluginListener {
+
+    private static final String PLUGIN_ID = "dev.jetplugins.beardedtheme";
+
+    @Override
+    public void beforePluginUnload(@NotNull IdeaPluginDescriptor pluginDescriptor, boolean isUpdate) {
+        if (!PLUGIN_ID.equals(pluginDescriptor.getPluginId().getIdString())) {
+            return;
+        }
+        BeardedIconWarmUp.stop();
+        BeardedAutoSwitcher.stop();
+        for (Project project : ProjectManager.getInstance().getOpenProjects()) {
+            BeardedContentSniffer.forget(project);
+            BeardedProjectViewRefresher.forget(project);
+        }
+        BeardedContentSniffer.clear();
+        BeardedIconTinter.clear();
+        BeardedIcons.clear();
+        BeardedIconMetrics.reset();
+    }
+}
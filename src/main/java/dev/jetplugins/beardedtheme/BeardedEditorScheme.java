@@ -0,0 +1,318 @@
+package dev.jetplugins.beardedtheme;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.awt.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An editor color scheme file read into lookup tables: the options of its
+ * {@code <colors>} section, and the text attributes of its
+ * {@code <attributes>} section with their colors and font type parsed.
+ *
+ * The file is read in a single streaming pass. Keys are kept per section,
+ * so a color option and an attribute key with the same name do not mix.
+ */
+final class BeardedEditorScheme {
+
+    private static final XMLInputFactory XML = createInputFactory();
+
+    private final String name;
+    private final String parentScheme;
+    // Values may be null for options that are present but empty.
+    private final Map<String, Color> colors;
+    private final Map<String, Attributes> attributes;
+
+    private BeardedEditorScheme(@NotNull String name, @Nullable String parentScheme,
+                                @NotNull Map<String, Color> colors, @NotNull Map<String, Attributes> attributes) {
+        this.name = name;
+        this.parentScheme = parentScheme;
+        this.colors = colors;
+        this.attributes = attributes;
+    }
+
+    /**
+     * Reads a scheme file. Attributes that only name
+     * {@code baseAttributes} get the base's values when the base is defined
+     * in the same file.
+     */
+    @NotNull
+    static BeardedEditorScheme parse(@NotNull Reader reader) throws IOException {
+        try {
+            XMLStreamReader xml = XML.createXMLStreamReader(reader);
+            try {
+                return read(xml);
+            } finally {
+                xml.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed editor scheme: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads {@code /themes/<slug>.xml}, or returns {@code null} if the file
+     * is missing or malformed.
+     */
+    @Nullable
+    static BeardedEditorScheme load(@NotNull String slug) {
+        try (InputStream in = BeardedEditorScheme.class.getResourceAsStream("/themes/" + slug + ".xml")) {
+            if (in == null) {
+                return null;
+            }
+            return parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @NotNull
+    String getName() {
+        return name;
+    }
+
+    @Nullable
+    String getParentScheme() {
+        return parentScheme;
+    }
+
+    boolean hasColor(@NotNull String key) {
+        return colors.containsKey(key);
+    }
+
+    /**
+     * Returns the color option {@code key}, or {@code null} if it is missing
+     * or empty.
+     */
+    @Nullable
+    Color getColor(@NotNull String key) {
+        return colors.get(key);
+    }
+
+    @NotNull
+    Set<String> getColorKeys() {
+        return Collections.unmodifiableSet(colors.keySet());
+    }
+
+    @Nullable
+    Attributes getAttributes(@NotNull String key) {
+        return attributes.get(key);
+    }
+
+    @NotNull
+    Set<String> getAttributeKeys() {
+        return Collections.unmodifiableSet(attributes.keySet());
+    }
+
+    /**
+     * The text attributes of one key. Font type and effect type use the
+     * values of the scheme file: font type is a combination of
+     * {@link Font#BOLD} and {@link Font#ITALIC}.
+     */
+    static final class Attributes {
+
+        private Color foreground;
+        private Color background;
+        private Color effectColor;
+        private Color errorStripeColor;
+        private int fontType = Font.PLAIN;
+        private int effectType;
+        private String baseAttributes;
+        private boolean hasValue;
+
+        @Nullable
+        Color getForeground() {
+            return foreground;
+        }
+
+        @Nullable
+        Color getBackground() {
+            return background;
+        }
+
+        @Nullable
+        Color getEffectColor() {
+            return effectColor;
+        }
+
+        @Nullable
+        Color getErrorStripeColor() {
+            return errorStripeColor;
+        }
+
+        int getFontType() {
+            return fontType;
+        }
+
+        int getEffectType() {
+            return effectType;
+        }
+
+        /** The key these attributes inherit from, if any. */
+        @Nullable
+        String getBaseAttributes() {
+            return baseAttributes;
+        }
+
+        private void set(@NotNull String option, @Nullable String value) {
+            hasValue = true;
+            switch (option) {
+                case "FOREGROUND":
+                    foreground = parseColor(value);
+                    break;
+                case "BACKGROUND":
+                    background = parseColor(value);
+                    break;
+                case "EFFECT_COLOR":
+                    effectColor = parseColor(value);
+                    break;
+                case "ERROR_STRIPE_COLOR":
+                    errorStripeColor = parseColor(value);
+                    break;
+                case "FONT_TYPE":
+                    fontType = parseInt(value);
+                    break;
+                case "EFFECT_TYPE":
+                    effectType = parseInt(value);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void inherit(@NotNull Attributes base) {
+            foreground = base.foreground;
+            background = base.background;
+            effectColor = base.effectColor;
+            errorStripeColor = base.errorStripeColor;
+            fontType = base.fontType;
+            effectType = base.effectType;
+        }
+    }
+
+    @NotNull
+    private static BeardedEditorScheme read(@NotNull XMLStreamReader xml) throws XMLStreamException {
+        String name = null;
+        String parentScheme = null;
+        Map<String, Color> colors = new HashMap<>();
+        Map<String, Attributes> attributes = new HashMap<>();
+
+        boolean inColors = false;
+        boolean inAttributes = false;
+        boolean inValue = false;
+        Attributes current = null;
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (xml.getLocalName()) {
+                    case "scheme":
+                        name = xml.getAttributeValue(null, "name");
+                        parentScheme = xml.getAttributeValue(null, "parent_scheme");
+                        break;
+                    case "colors":
+                        inColors = true;
+                        break;
+                    case "attributes":
+                        inAttributes = true;
+                        break;
+                    case "value":
+                        inValue = current != null;
+                        break;
+                    case "option":
+                        String key = xml.getAttributeValue(null, "name");
+                        if (key == null) {
+                            break;
+                        }
+                        if (inColors) {
+                            colors.put(key, parseColor(xml.getAttributeValue(null, "value")));
+                        } else if (inAttributes && current == null) {
+                            current = new Attributes();
+                            current.baseAttributes = xml.getAttributeValue(null, "baseAttributes");
+                            attributes.put(key, current);
+                        } else if (inValue) {
+                            current.set(key, xml.getAttributeValue(null, "value"));
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                switch (xml.getLocalName()) {
+                    case "colors":
+                        inColors = false;
+                        break;
+                    case "attributes":
+                        inAttributes = false;
+                        break;
+                    case "value":
+                        inValue = false;
+                        break;
+                    case "option":
+                        // The end of a nested value option leaves the attribute open.
+                        if (!inValue) {
+                            current = null;
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        if (name == null) {
+            throw new XMLStreamException("no <scheme> element");
+        }
+
+        for (Attributes attrs : attributes.values()) {
+            Attributes base = attrs.baseAttributes != null ? attributes.get(attrs.baseAttributes) : null;
+            if (!attrs.hasValue && base != null && base.baseAttributes == null) {
+                attrs.inherit(base);
+            }
+        }
+        return new BeardedEditorScheme(name, parentScheme, colors, attributes);
+    }
+
+    /**
+     * Parses the {@code RRGGBB} values of scheme files, which have no
+     * {@code #}; anything else is no color.
+     */
+    @Nullable
+    private static Color parseColor(@Nullable String value) {
+        if (value == null || value.length() != 6) {
+            return null;
+        }
+        try {
+            return new Color(Integer.parseInt(value, 16));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int parseInt(@Nullable String value) {
+        try {
+            return value != null ? Integer.parseInt(value.trim()) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @NotNull
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
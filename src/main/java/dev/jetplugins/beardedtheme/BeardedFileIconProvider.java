@@ -0,0 +1,88 @@
+package dev.jetplugins.beardedtheme;
+
+import com.intellij.ide.FileIconProvider;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.util.List;
+
+/**
+ * Provides Bearded file and folder icons straight from a {@link VirtualFile},
+ * so files that have no PSI yet get their icon without building any.
+ * {@link BeardedIconProvider} delegates here for PSI files and directories.
+ * Files without an extension can optionally be recognized by their content
+ * through {@link BeardedContentSniffer}.
+ *
+ * {@link #getIcons} and {@link #getIconsByName} are the batch entry points
+ * for callers that show many files at once; they go through the same cache
+ * and index as the single-file path.
+ */
+public class BeardedFileIconProvider implements FileIconProvider, DumbAware {
+
+    @Override
+    public @Nullable Icon getIcon(@NotNull VirtualFile file, int flags, @Nullable Project project) {
+        return getIcon(file, project);
+    }
+
+    static @Nullable Icon getIcon(@NotNull VirtualFile file, @Nullable Project project) {
+        long start = System.nanoTime();
+        try {
+            BeardedThemeSettings.Snapshot settings = BeardedThemeSettings.snapshot();
+            if (!settings.isIconsEnabled()) {
+                return null;
+            }
+            String iconId = BeardedIconCache.getInstance().getIconId(file);
+            if (iconId == null && project != null && settings.isContentSniffingEnabled()
+                && BeardedContentSniffer.isCandidate(file)) {
+                iconId = BeardedContentSniffer.getIconId(project, file);
+            }
+            return BeardedIcons.get(iconId);
+        } finally {
+            BeardedIconMetrics.call(file.isDirectory() ? BeardedIconMetrics.ElementType.DIRECTORY
+                : BeardedIconMetrics.ElementType.FILE, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns the Bearded icons of {@code files} in order, {@code null} where
+     * a file has none. May be called from a background thread.
+     */
+    public static @Nullable Icon @NotNull [] getIcons(@NotNull List<? extends VirtualFile> files,
+                                                      @Nullable Project project) {
+        Icon[] icons = new Icon[files.size()];
+        BeardedThemeSettings.Snapshot settings = BeardedThemeSettings.snapshot();
+        if (!settings.isIconsEnabled()) {
+            return icons;
+        }
+        String[] iconIds = BeardedIconCache.getInstance().getIconIds(files);
+        boolean sniff = project != null && settings.isContentSniffingEnabled();
+        for (int i = 0; i < icons.length; i++) {
+            String iconId = iconIds[i];
+            if (iconId == null && sniff && BeardedContentSniffer.isCandidate(files.get(i))) {
+                iconId = BeardedContentSniffer.getIconId(project, files.get(i));
+            }
+            icons[i] = BeardedIcons.get(iconId);
+        }
+        return icons;
+    }
+
+    /**
+     * Returns the Bearded icons for plain file names in order, {@code null}
+     * where a name has none. May be called from a background thread.
+     */
+    public static @Nullable Icon @NotNull [] getIconsByName(@NotNull List<? extends CharSequence> fileNames) {
+        Icon[] icons = new Icon[fileNames.size()];
+        if (!BeardedThemeSettings.snapshot().isIconsEnabled()) {
+            return icons;
+        }
+        String[] iconIds = BeardedIconIndex.current().fileIconIds(fileNames);
+        for (int i = 0; i < icons.length; i++) {
+            icons[i] = BeardedIcons.get(iconIds[i]);
+        }
+        return icons;
+    }
+}
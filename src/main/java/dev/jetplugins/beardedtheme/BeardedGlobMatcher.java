@@ -0,0 +1,455 @@
+package dev.jetplugins.beardedtheme;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.IntFunction;
+
+/**
+ * Case-insensitive glob rules compiled into a single deterministic automaton.
+ *
+ * Supported syntax is {@code *} (any run of characters), {@code ?} (any one
+ * character) and {@code {a,b,c}} (alternatives). All rules are merged into
+ * one NFA and turned into a DFA by subset construction when the matcher is
+ * built, so matching a name is one pass over its characters however many
+ * rules are registered, and never allocates. When several rules match, the
+ * one registered first wins.
+ *
+ * The automaton is minimized and stored as a dense table: characters are
+ * first mapped to an equivalence class (every character that no rule spells
+ * out shares class 0), then {@code transitions[state * classCount + class]}
+ * gives the next state.
+ *
+ * Subset construction can blow up exponentially, e.g. for {@code *a??????}.
+ * Building fails with an {@link IllegalArgumentException} once the
+ * automaton would exceed {@link #MAX_STATES} states, or a glob would expand
+ * to more than {@link #MAX_ALTERNATIVES} brace alternatives, so a single
+ * user-defined pattern cannot stall the index rebuild.
+ */
+final class BeardedGlobMatcher {
+
+    static final int MAX_STATES = 10_000;
+    static final int MAX_ALTERNATIVES = 1_000;
+
+    private static final int DEAD = -1;
+
+    // Class of each ASCII character, with upper case already folded onto
+    // lower case; other characters are folded and looked up in
+    // extraChars/extraClasses, which are sorted by character.
+    private final int[] asciiClasses;
+    private final char[] extraChars;
+    private final int[] extraClasses;
+    private final int classCount;
+    private final int[] transitions;
+    private final String[] accepts;
+
+    private BeardedGlobMatcher(int[] asciiClasses, char[] extraChars, int[] extraClasses,
+                               int classCount, int[] transitions, String[] accepts) {
+        this.asciiClasses = asciiClasses;
+        this.extraChars = extraChars;
+        this.extraClasses = extraClasses;
+        this.classCount = classCount;
+        this.transitions = transitions;
+        this.accepts = accepts;
+    }
+
+    /**
+     * Returns the value of the first rule matching the whole of {@code name}.
+     */
+    @Nullable
+    String match(@NotNull CharSequence name) {
+        if (accepts.length == 0) {
+            return null;
+        }
+        int state = 0;
+        for (int i = 0, length = name.length(); i < length; i++) {
+            state = transitions[state * classCount + classOf(name.charAt(i))];
+            if (state == DEAD) {
+                return null;
+            }
+        }
+        return accepts[state];
+    }
+
+    /**
+     * Adds every registered value to {@code target}.
+     */
+    void collectValues(@NotNull Collection<? super String> target) {
+        for (String value : accepts) {
+            if (value != null) {
+                target.add(value);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of states of the minimized automaton.
+     */
+    int stateCount() {
+        return accepts.length;
+    }
+
+    private int classOf(char c) {
+        if (c < 0x80) {
+            return asciiClasses[c];
+        }
+        int index = Arrays.binarySearch(extraChars, BeardedNameTrie.fold(c));
+        return index >= 0 ? extraClasses[index] : 0;
+    }
+
+    static final class Builder {
+
+        private final List<String> globs = new ArrayList<>();
+        private final List<String> values = new ArrayList<>();
+        private int overrides;
+
+        @NotNull
+        Builder add(@NotNull String glob, @NotNull String value) {
+            return insert(globs.size(), glob, value);
+        }
+
+        /**
+         * Adds a rule that takes precedence over every rule registered with
+         * {@link #add}. Overrides keep their own registration order.
+         */
+        @NotNull
+        Builder addOverride(@NotNull String glob, @NotNull String value) {
+            int before = globs.size();
+            insert(overrides, glob, value);
+            overrides += globs.size() - before;
+            return this;
+        }
+
+        @NotNull
+        private Builder insert(int position, @NotNull String glob, @NotNull String value) {
+            for (String expanded : expandBraces(glob)) {
+                StringBuilder folded = new StringBuilder(expanded.length());
+                for (int i = 0; i < expanded.length(); i++) {
+                    folded.append(BeardedNameTrie.fold(expanded.charAt(i)));
+                }
+                globs.add(position, folded.toString());
+                values.add(position, value);
+                position++;
+            }
+            return this;
+        }
+
+        static boolean isGlob(@NotNull String text) {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '*' || c == '?' || c == '{') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @NotNull
+        BeardedGlobMatcher build() {
+            return new Compiler(globs, values).compile();
+        }
+
+        /**
+         * Checks that {@code glob} compiles on its own, throwing the
+         * {@link IllegalArgumentException} that {@link #build} would.
+         */
+        static void validate(@NotNull String glob) {
+            new Builder().add(glob, "").build();
+        }
+
+        /**
+         * Checks the braces of {@code glob} and the number of alternatives
+         * they expand to, without compiling it. Cheap enough for the EDT;
+         * {@link #validate} also catches globs with too many states.
+         */
+        static void checkSyntax(@NotNull String glob) {
+            expandBraces(glob);
+        }
+
+        @NotNull
+        static List<String> expandBraces(@NotNull String glob) {
+            return expandBraces(glob, glob);
+        }
+
+        @NotNull
+        private static List<String> expandBraces(@NotNull String glob, @NotNull String original) {
+            int open = glob.indexOf('{');
+            if (open < 0) {
+                return List.of(glob);
+            }
+            int depth = 0;
+            int close = -1;
+            List<String> alternatives = new ArrayList<>();
+            int start = open + 1;
+            for (int i = open; i < glob.length() && close < 0; i++) {
+                char c = glob.charAt(i);
+                if (c == '{') {
+                    depth++;
+                } else if (c == '}' && --depth == 0) {
+                    alternatives.add(glob.substring(start, i));
+                    close = i;
+                } else if (c == ',' && depth == 1) {
+                    alternatives.add(glob.substring(start, i));
+                    start = i + 1;
+                }
+            }
+            if (close < 0) {
+                throw new IllegalArgumentException("Unbalanced '{' in glob: " + original);
+            }
+            String prefix = glob.substring(0, open);
+            String suffix = glob.substring(close + 1);
+            List<String> result = new ArrayList<>();
+            for (String alternative : alternatives) {
+                result.addAll(expandBraces(prefix + alternative + suffix, original));
+                if (result.size() > MAX_ALTERNATIVES) {
+                    throw new IllegalArgumentException("Too many alternatives (more than " + MAX_ALTERNATIVES
+                        + ") in glob: " + original);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Subset construction over the NFA of all rules. NFA states are the
+     * positions inside each glob; position {@code length} accepts.
+     */
+    private static final class Compiler {
+
+        private static final int LITERAL = 0;
+        private static final int ANY = 1;
+        private static final int STAR = 2;
+        private static final int END = 3;
+
+        private final List<String> values;
+        private final int[] kinds;
+        private final char[] chars;
+        private final int[] rules;
+        private final BitSet starts = new BitSet();
+        private final char[] alphabet;
+
+        Compiler(@NotNull List<String> globs, @NotNull List<String> values) {
+            this.values = values;
+            int size = 0;
+            for (String glob : globs) {
+                size += glob.length() + 1;
+            }
+            kinds = new int[size];
+            chars = new char[size];
+            rules = new int[size];
+
+            TreeSet<Character> letters = new TreeSet<>();
+            int id = 0;
+            for (int rule = 0; rule < globs.size(); rule++) {
+                String glob = globs.get(rule);
+                starts.set(id);
+                for (int i = 0; i < glob.length(); i++, id++) {
+                    char c = glob.charAt(i);
+                    kinds[id] = c == '*' ? STAR : c == '?' ? ANY : LITERAL;
+                    chars[id] = c;
+                    rules[id] = rule;
+                    if (kinds[id] == LITERAL) {
+                        letters.add(c);
+                    }
+                }
+                kinds[id] = END;
+                rules[id] = rule;
+                id++;
+            }
+            alphabet = new char[letters.size()];
+            int i = 0;
+            for (char c : letters) {
+                alphabet[i++] = c;
+            }
+        }
+
+        @NotNull
+        BeardedGlobMatcher compile() {
+            if (values.isEmpty()) {
+                return new BeardedGlobMatcher(new int[0x80], new char[0], new int[0], 1, new int[0], new String[0]);
+            }
+            Map<BitSet, Integer> ids = new HashMap<>();
+            List<BitSet> states = new ArrayList<>();
+            ArrayDeque<BitSet> queue = new ArrayDeque<>();
+
+            BitSet start = closure((BitSet) starts.clone());
+            ids.put(start, 0);
+            states.add(start);
+            queue.add(start);
+
+            // Class 0 is "any character no rule spells out"; class i + 1 is alphabet[i].
+            int classCount = alphabet.length + 1;
+            List<int[]> rows = new ArrayList<>();
+            while (!queue.isEmpty()) {
+                BitSet state = queue.poll();
+                int[] row = new int[classCount];
+                row[0] = idOf(move(state, (char) 0, false), ids, states, queue);
+                for (int i = 0; i < alphabet.length; i++) {
+                    row[i + 1] = idOf(move(state, alphabet[i], true), ids, states, queue);
+                }
+                rows.add(row);
+            }
+            String[] accepts = new String[states.size()];
+            for (int s = 0; s < accepts.length; s++) {
+                accepts[s] = acceptOf(states.get(s));
+            }
+            return minimize(rows, accepts, classCount);
+        }
+
+        /**
+         * Merges equivalent states by partition refinement (Moore's algorithm)
+         * and packs the result into the dense table used for matching.
+         */
+        @NotNull
+        private BeardedGlobMatcher minimize(@NotNull List<int[]> rows, @NotNull String[] accepts, int classCount) {
+            int count = accepts.length;
+            int[] block = new int[count];
+            int blocks = refine(block, s -> accepts[s] == null ? "" : "=" + accepts[s]);
+            while (true) {
+                int[] previous = block.clone();
+                int refined = refine(block, s -> {
+                    int[] row = rows.get(s);
+                    StringBuilder key = new StringBuilder().append(previous[s]);
+                    for (int target : row) {
+                        key.append(',').append(target == DEAD ? DEAD : previous[target]);
+                    }
+                    return key.toString();
+                });
+                if (refined == blocks) {
+                    break;
+                }
+                blocks = refined;
+            }
+
+            // Renumber so that the start state's block becomes state 0.
+            int[] renumber = new int[blocks];
+            Arrays.fill(renumber, -1);
+            renumber[block[0]] = 0;
+            int next = 1;
+            for (int s = 0; s < count; s++) {
+                if (renumber[block[s]] < 0) {
+                    renumber[block[s]] = next++;
+                }
+            }
+
+            int[] transitions = new int[blocks * classCount];
+            String[] minimalAccepts = new String[blocks];
+            for (int s = 0; s < count; s++) {
+                int state = renumber[block[s]];
+                minimalAccepts[state] = accepts[s];
+                int[] row = rows.get(s);
+                for (int c = 0; c < classCount; c++) {
+                    transitions[state * classCount + c] = row[c] == DEAD ? DEAD : renumber[block[row[c]]];
+                }
+            }
+
+            int[] asciiClasses = new int[0x80];
+            int extras = 0;
+            for (char c : alphabet) {
+                if (c >= 0x80) {
+                    extras++;
+                }
+            }
+            char[] extraChars = new char[extras];
+            int[] extraClasses = new int[extras];
+            int e = 0;
+            for (int i = 0; i < alphabet.length; i++) {
+                char c = alphabet[i];
+                if (c < 0x80) {
+                    asciiClasses[c] = i + 1;
+                    if (c >= 'a' && c <= 'z') {
+                        asciiClasses[c - ('a' - 'A')] = i + 1;
+                    }
+                } else {
+                    extraChars[e] = c;
+                    extraClasses[e++] = i + 1;
+                }
+            }
+            return new BeardedGlobMatcher(asciiClasses, extraChars, extraClasses, classCount,
+                transitions, minimalAccepts);
+        }
+
+        private static int refine(@NotNull int[] block, @NotNull IntFunction<String> signature) {
+            Map<String, Integer> blocks = new HashMap<>();
+            for (int s = 0; s < block.length; s++) {
+                Integer id = blocks.putIfAbsent(signature.apply(s), blocks.size());
+                block[s] = id != null ? id : blocks.size() - 1;
+            }
+            return blocks.size();
+        }
+
+        private int idOf(@NotNull BitSet state, @NotNull Map<BitSet, Integer> ids,
+                         @NotNull List<BitSet> states, @NotNull ArrayDeque<BitSet> queue) {
+            if (state.isEmpty()) {
+                return DEAD;
+            }
+            Integer id = ids.get(state);
+            if (id == null) {
+                if (states.size() == MAX_STATES) {
+                    throw new IllegalArgumentException("Glob patterns are too complex (more than " + MAX_STATES
+                        + " automaton states)");
+                }
+                id = states.size();
+                ids.put(state, id);
+                states.add(state);
+                queue.add(state);
+            }
+            return id;
+        }
+
+        @NotNull
+        private BitSet move(@NotNull BitSet state, char c, boolean literal) {
+            BitSet next = new BitSet();
+            for (int id = state.nextSetBit(0); id >= 0; id = state.nextSetBit(id + 1)) {
+                switch (kinds[id]) {
+                    case LITERAL:
+                        if (literal && chars[id] == c) {
+                            next.set(id + 1);
+                        }
+                        break;
+                    case ANY:
+                        next.set(id + 1);
+                        break;
+                    case STAR:
+                        next.set(id);
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return closure(next);
+        }
+
+        @NotNull
+        private BitSet closure(@NotNull BitSet state) {
+            // '*' may match nothing; its successor always has a higher id,
+            // so a single ascending sweep reaches the fixed point.
+            for (int id = state.nextSetBit(0); id >= 0; id = state.nextSetBit(id + 1)) {
+                if (kinds[id] == STAR) {
+                    state.set(id + 1);
+                }
+            }
+            return state;
+        }
+
+        @Nullable
+        private String acceptOf(@NotNull BitSet state) {
+            int best = Integer.MAX_VALUE;
+            for (int id = state.nextSetBit(0); id >= 0; id = state.nextSetBit(id + 1)) {
+                if (kinds[id] == END) {
+                    best = Math.min(best, rules[id]);
+                }
+            }
+            return best == Integer.MAX_VALUE ? null : values.get(best);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package dev.jetplugins.beardedtheme;
+
+import com.intellij.openapi.options.ConfigurationException;
+import com.intellij.openapi.ui.ComboBox;
+import com.intellij.ui.SimpleListCellRenderer;
+import com.intellij.ui.ToolbarDecorator;
+import com.intellij.ui.table.JBTable;
+import com.intellij.util.ui.EditableModel;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Table editor for user-defined icon associations, shown on the Bearded
+ * Theme settings page. Rows are kept in order because custom file name
+ * patterns are matched in the order they appear.
+ */
+final class BeardedIconAssociationsPanel {
+
+    enum Kind {
+        EXTENSION("Extension"),
+        FILE_NAME("File name or pattern"),
+        FOLDER("Folder");
+
+        private final String title;
+
+        Kind(String title) {
+            this.title = title;
+        }
+
+        @Override
+        public String toString() {
+            return title;
+        }
+    }
+
+    private static final class Row {
+        Kind kind;
+        String key;
+        String iconId;
+
+        Row(Kind kind, String key, String iconId) {
+            this.kind = kind;
+            this.key = key;
+            this.iconId = iconId;
+        }
+    }
+
+    private final String[] iconIds = BeardedIconIndex.getDefault().iconIds().toArray(new String[0]);
+    private final AssociationsModel model = new AssociationsModel();
+    private final JBTable table = new JBTable(model);
+    private final JComponent component;
+
+    BeardedIconAssociationsPanel() {
+        table.getColumnModel().getColumn(0).setCellEditor(new DefaultCellEditor(new ComboBox<>(Kind.values())));
+
+        ComboBox<String> iconCombo = new ComboBox<>(iconIds);
+        iconCombo.setRenderer(SimpleListCellRenderer.create((label, value, index) -> {
+            label.setText(value);
+            label.setIcon(BeardedIcons.get(value));
+        }));
+        table.getColumnModel().getColumn(2).setCellEditor(new DefaultCellEditor(iconCombo));
+        table.getColumnModel().getColumn(2).setCellRenderer(new DefaultTableCellRenderer() {
+            @Override
+            public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                           boolean hasFocus, int row, int column) {
+                super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+                setIcon(BeardedIcons.get((String) value));
+                return this;
+            }
+        });
+        table.getEmptyText().setText("No custom associations");
+
+        component = ToolbarDecorator.createDecorator(table).createPanel();
+    }
+
+    @NotNull
+    JComponent getComponent() {
+        return component;
+    }
+
+    void reset(@NotNull BeardedThemeSettings.Snapshot settings) {
+        model.rows.clear();
+        settings.getCustomExtensions().forEach((key, iconId) -> model.rows.add(new Row(Kind.EXTENSION, key, iconId)));
+        settings.getCustomFileNames().forEach((key, iconId) -> model.rows.add(new Row(Kind.FILE_NAME, key, iconId)));
+        settings.getCustomFolders().forEach((key, iconId) -> model.rows.add(new Row(Kind.FOLDER, key, iconId)));
+        model.fireTableDataChanged();
+    }
+
+    boolean isModified(@NotNull BeardedThemeSettings.Snapshot settings) {
+        return !BeardedThemeSettings.Snapshot.sameInOrder(associations(Kind.EXTENSION), settings.getCustomExtensions())
+            || !BeardedThemeSettings.Snapshot.sameInOrder(associations(Kind.FILE_NAME), settings.getCustomFileNames())
+            || !BeardedThemeSettings.Snapshot.sameInOrder(associations(Kind.FOLDER), settings.getCustomFolders());
+    }
+
+    /**
+     * Saves the rows into {@code settings}. Nothing is saved if a file name
+     * pattern has unbalanced braces or too many alternatives; the exception
+     * names its row. Patterns are only compiled when the index is rebuilt
+     * in the background, see {@link BeardedThemeSettings}.
+     */
+    void apply(@NotNull BeardedThemeSettings settings) throws ConfigurationException {
+        if (table.isEditing()) {
+            table.getCellEditor().stopCellEditing();
+        }
+        Map<String, String> extensions = associations(Kind.EXTENSION);
+        Map<String, String> fileNames = associations(Kind.FILE_NAME);
+        Map<String, String> folders = associations(Kind.FOLDER);
+        checkPatterns();
+        settings.setCustomAssociations(extensions, fileNames, folders);
+    }
+
+    private void checkPatterns() throws ConfigurationException {
+        for (int i = 0; i < model.rows.size(); i++) {
+            Row row = model.rows.get(i);
+            String key = row.key != null ? row.key.trim() : "";
+            if (row.kind != Kind.FILE_NAME || !BeardedGlobMatcher.Builder.isGlob(key)) {
+                continue;
+            }
+            try {
+                BeardedGlobMatcher.Builder.checkSyntax(key);
+            } catch (IllegalArgumentException e) {
+                throw new ConfigurationException("Row " + (i + 1) + ", \"" + key + "\": " + e.getMessage(),
+                    "Invalid Icon Association");
+            }
+        }
+    }
+
+    @NotNull
+    private Map<String, String> associations(@NotNull Kind kind) {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (Row row : model.rows) {
+            String key = row.key != null ? row.key.trim() : "";
+            if (row.kind == kind && !key.isEmpty() && row.iconId != null) {
+                result.put(key, row.iconId);
+            }
+        }
+        return result;
+    }
+
+    private final class AssociationsModel extends AbstractTableModel implements EditableModel {
+
+        private final List<Row> rows = new ArrayList<>();
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return 3;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            switch (column) {
+                case 0:
+                    return "Type";
+                case 1:
+                    return "Name";
+                default:
+                    return "Icon";
+            }
+        }
+
+        @Override
+        public boolean isCellEditable(int rowIndex, int columnIndex) {
+            return true;
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            Row row = rows.get(rowIndex);
+            switch (columnIndex) {
+                case 0:
+                    return row.kind;
+                case 1:
+                    return row.key;
+                default:
+                    return row.iconId;
+            }
+        }
+
+        @Override
+        public void setValueAt(Object value, int rowIndex, int columnIndex) {
+            Row row = rows.get(rowIndex);
+            switch (columnIndex) {
+                case 0:
+                    row.kind = (Kind) value;
+                    break;
+                case 1:
+                    row.key = (String) value;
+                    break;
+                default:
+                    row.iconId = (String) value;
+                    break;
+            }
+            fireTableCellUpdated(rowIndex, columnIndex);
+        }
+
+        @Override
+        public void addRow() {
+            rows.add(new Row(Kind.EXTENSION, "", iconIds.length > 0 ? iconIds[0] : null));
+            fireTableRowsInserted(rows.size() - 1, rows.size() - 1);
+        }
+
+        @Override
+        public void removeRow(int index) {
+            rows.remove(index);
+            fireTableRowsDeleted(index, index);
+        }
+
+        @Override
+        public void exchangeRows(int oldIndex, int newIndex) {
+            Collections.swap(rows, oldIndex, newIndex);
+            fireTableRowsUpdated(Math.min(oldIndex, newIndex), Math.max(oldIndex, newIndex));
+        }
+
+        @Override
+        public boolean canExchangeRows(int oldIndex, int newIndex) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package dev.jetplugins.beardedtheme;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.ui.scale.JBUIScale;
+import com.intellij.util.IconUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Pre-rasterized sprite atlases of the Bearded icons, generated at build
+ * time by the {@code generateIconAtlas} Gradle task for the common UI
+ * scales. Painting from an atlas is a single image blit, so neither startup
+ * nor a repaint has to parse SVG at those scales. Any other scale falls back
+ * to the SVG icon loaded by {@link com.intellij.openapi.util.IconLoader}.
+ *
+ * While a Bearded theme is active, {@link BeardedIconTinter} may install
+ * recolored copies of the atlases, which are then painted instead. Painting
+ * at a scale without an atlas asks the tinter for one: it rasterizes the
+ * SVG icons into an atlas at that scale and recolors it in the background,
+ * and until then the icon paints from its SVG in the original colors.
+ */
+final class BeardedIconAtlas {
+
+    private static final Logger LOG = Logger.getInstance(BeardedIconAtlas.class);
+
+    private static final String ATLAS_PATH = "/atlas/";
+    private static final int[] SCALES = {100, 125, 150, 200};
+    private static final int COLUMNS = 16;
+    private static final int ICON_SIZE = 16;
+
+    private static final Map<String, Integer> SLOTS = loadSlots();
+
+    // One lazily decoded image per entry of SCALES.
+    private static final AtomicReferenceArray<BufferedImage> IMAGES = new AtomicReferenceArray<>(SCALES.length);
+
+    // Tint of the active theme; null when painting the original colors.
+    private static volatile Tint tint;
+
+    private BeardedIconAtlas() {
+    }
+
+    /**
+     * Wraps {@code svgIcon} so that it paints from the atlas when one exists
+     * for the current scale. Returns {@code svgIcon} itself if the atlas does
+     * not contain {@code iconId}.
+     */
+    static @NotNull Icon wrap(@NotNull String iconId, @NotNull Icon svgIcon) {
+        Integer slot = SLOTS.get(iconId);
+        return slot != null ? new AtlasIcon(slot, svgIcon) : svgIcon;
+    }
+
+    static int scaleCount() {
+        return SCALES.length;
+    }
+
+    static int cellSize(int scaleIndex) {
+        return ICON_SIZE * SCALES[scaleIndex] / 100;
+    }
+
+    static int cellSizeAt(int percent) {
+        return Math.round(ICON_SIZE * percent / 100f);
+    }
+
+    static void setTint(@Nullable Tint newTint) {
+        tint = newTint;
+    }
+
+    /**
+     * Returns the original atlas for {@code scaleIndex}, decoding it on first
+     * use, or {@code null} if it is not bundled.
+     */
+    static @Nullable BufferedImage image(int scaleIndex) {
+        BufferedImage image = IMAGES.get(scaleIndex);
+        if (image == null) {
+            URL url = BeardedIconAtlas.class.getResource(ATLAS_PATH + "atlas-" + SCALES[scaleIndex] + ".png");
+            if (url == null) {
+                return null;
+            }
+            try {
+                image = ImageIO.read(url);
+            } catch (IOException e) {
+                LOG.warn("Bearded Theme: cannot read icon atlas " + url, e);
+                return null;
+            }
+            IMAGES.compareAndSet(scaleIndex, null, image);
+            image = IMAGES.get(scaleIndex);
+        }
+        return image;
+    }
+
+    /**
+     * Rasterizes the SVG icons of the atlas into a new atlas for a scale of
+     * {@code percent} that has none bundled. Slow; call it in the background.
+     */
+    static @NotNull BufferedImage rasterize(int percent) {
+        int cell = cellSizeAt(percent);
+        int rows = Math.max(1, (SLOTS.size() + COLUMNS - 1) / COLUMNS);
+        BufferedImage atlas = new BufferedImage(COLUMNS * cell, rows * cell, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = atlas.createGraphics();
+        try {
+            SLOTS.forEach((iconId, slot) -> {
+                Icon icon = BeardedIcons.get(iconId);
+                Icon svgIcon = icon instanceof AtlasIcon ? ((AtlasIcon) icon).svgIcon : icon;
+                if (svgIcon == null || svgIcon.getIconWidth() <= 0) {
+                    return;
+                }
+                Icon scaled = IconUtil.scale(svgIcon, null, (float) cell / svgIcon.getIconWidth());
+                Graphics2D cellGraphics = (Graphics2D) g.create((slot % COLUMNS) * cell, (slot / COLUMNS) * cell,
+                    cell, cell);
+                try {
+                    scaled.paintIcon(null, cellGraphics, 0, 0);
+                } finally {
+                    cellGraphics.dispose();
+                }
+            });
+        } finally {
+            g.dispose();
+        }
+        return atlas;
+    }
+
+    private static int scaleIndexOf(int percent) {
+        for (int i = 0; i < SCALES.length; i++) {
+            if (SCALES[i] == percent) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static @NotNull Map<String, Integer> loadSlots() {
+        Map<String, Integer> slots = new HashMap<>();
+        InputStream in = BeardedIconAtlas.class.getResourceAsStream(ATLAS_PATH + "atlas.txt");
+        if (in == null) {
+            return slots;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    slots.put(line, slots.size());
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn("Bearded Theme: cannot read icon atlas index", e);
+            slots.clear();
+        }
+        return slots;
+    }
+
+    /**
+     * The atlases recolored to a theme's palette, indexed like the bundled
+     * ones, with atlases rasterized at other scales by percent.
+     */
+    static final class Tint {
+        final BufferedImage[] images;
+        final float[] hues;
+        final Map<Integer, BufferedImage> scaledImages;
+
+        Tint(@NotNull BufferedImage[] images, @NotNull float[] hues,
+             @NotNull Map<Integer, BufferedImage> scaledImages) {
+            this.images = images;
+            this.hues = hues;
+            this.scaledImages = scaledImages;
+        }
+    }
+
+    private static final class AtlasIcon implements Icon {
+        private final int slot;
+        private final Icon svgIcon;
+
+        AtlasIcon(int slot, Icon svgIcon) {
+            this.slot = slot;
+            this.svgIcon = svgIcon;
+        }
+
+        @Override
+        public void paintIcon(Component c, Graphics g, int x, int y) {
+            double deviceScale = g instanceof Graphics2D ? JBUIScale.sysScale((Graphics2D) g) : 1;
+            int percent = (int) Math.round(deviceScale * JBUIScale.scale(1f) * 100);
+            int scaleIndex = scaleIndexOf(percent);
+            Tint activeTint = tint;
+            BufferedImage atlas;
+            int cell;
+            if (scaleIndex >= 0) {
+                atlas = activeTint != null && activeTint.images[scaleIndex] != null
+                    ? activeTint.images[scaleIndex]
+                    : image(scaleIndex);
+                cell = cellSize(scaleIndex);
+            } else {
+                atlas = activeTint != null ? activeTint.scaledImages.get(percent) : null;
+                cell = cellSizeAt(percent);
+                if (atlas == null && activeTint != null) {
+                    BeardedIconTinter.addScale(percent);
+                }
+            }
+            if (atlas == null) {
+                svgIcon.paintIcon(c, g, x, y);
+                return;
+            }
+            int sx = (slot % COLUMNS) * cell;
+            int sy = (slot / COLUMNS) * cell;
+            g.drawImage(atlas, x, y, x + getIconWidth(), y + getIconHeight(), sx, sy, sx + cell, sy + cell, null);
+        }
+
+        @Override
+        public int getIconWidth() {
+            return svgIcon.getIconWidth();
+        }
+
+        @Override
+        public int getIconHeight() {
+            return svgIcon.getIconHeight();
+        }
+    }
+}
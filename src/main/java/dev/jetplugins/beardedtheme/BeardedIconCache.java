@@ -0,0 +1,179 @@
+package dev.jetplugins.beardedtheme;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded cache of resolved icon ids keyed by {@link VirtualFile}.
+ *
+ * The cache is direct-mapped: every file hashes to a single slot holding an
+ * immutable entry, so reads and writes are plain atomic array accesses and
+ * it is safe to use from the platform's background icon evaluation without
+ * any locking. A colliding file simply replaces the previous entry.
+ *
+ * Entries are dropped by {@link BeardedIconCacheInvalidator} when a file is
+ * renamed, moved or deleted. A resolution that races with an invalidation is
+ * returned to its caller but not kept: the stamp is checked again after the
+ * entry is written, and the entry is taken back out if an invalidation got
+ * in between, so a stale id never sticks.
+ *
+ * {@link #getIconIds} resolves a whole list at once for views that show
+ * thousands of files, such as search results or the changes list.
+ */
+public final class BeardedIconCache {
+
+    private static final int SIZE = 4096;
+
+    // Stored for files without a Bearded icon so misses are cached too.
+    // Compared by identity; a new instance, so that no icon id, including
+    // the arbitrary ids of custom associations, can be mistaken for it.
+    private static final String NO_ICON = new String("");
+
+    private final AtomicReferenceArray<Entry> slots = new AtomicReferenceArray<>(SIZE);
+    private final AtomicInteger invalidations = new AtomicInteger();
+
+    public static BeardedIconCache getInstance() {
+        return ApplicationManager.getApplication().getService(BeardedIconCache.class);
+    }
+
+    /**
+     * Returns the Bearded icon id for {@code file}, or {@code null} if it has none.
+     */
+    @Nullable
+    public String getIconId(@NotNull VirtualFile file) {
+        int slot = slotOf(file);
+        Entry entry = slots.get(slot);
+        if (entry != null && entry.file == file) {
+            BeardedIconMetrics.cacheHit();
+        } else {
+            BeardedIconMetrics.cacheMiss();
+            int stamp = invalidations.get();
+            String iconId = resolve(file);
+            entry = new Entry(file, iconId != null ? iconId : NO_ICON);
+            put(slot, entry, stamp);
+        }
+        return entry.iconId == NO_ICON ? null : entry.iconId;
+    }
+
+    /**
+     * Returns the Bearded icon ids of {@code files}, element {@code i} of the
+     * result belonging to {@code files.get(i)} ({@code null} where a file has
+     * none). Files that are not cached are resolved together against a
+     * single index, see {@link BeardedIconIndex#fileIconIds}. Safe to call
+     * from any thread.
+     */
+    public @Nullable String @NotNull [] getIconIds(@NotNull List<? extends VirtualFile> files) {
+        String[] result = new String[files.size()];
+        Misses missedFiles = new Misses();
+        Misses missedFolders = new Misses();
+        for (int i = 0; i < result.length; i++) {
+            VirtualFile file = files.get(i);
+            Entry entry = slots.get(slotOf(file));
+            if (entry != null && entry.file == file) {
+                BeardedIconMetrics.cacheHit();
+                result[i] = entry.iconId == NO_ICON ? null : entry.iconId;
+            } else {
+                BeardedIconMetrics.cacheMiss();
+                (file.isDirectory() ? missedFolders : missedFiles).add(i, file);
+            }
+        }
+        if (missedFiles.isEmpty() && missedFolders.isEmpty()) {
+            return result;
+        }
+
+        int stamp = invalidations.get();
+        BeardedIconIndex index = BeardedIconIndex.current();
+        store(files, result, missedFiles, index.fileIconIds(missedFiles.names), stamp);
+        store(files, result, missedFolders, index.folderIconIds(missedFolders.names), stamp);
+        return result;
+    }
+
+    private void store(@NotNull List<? extends VirtualFile> files, @Nullable String @NotNull [] result,
+                       @NotNull Misses misses, @Nullable String @NotNull [] iconIds, int stamp) {
+        for (int i = 0; i < iconIds.length; i++) {
+            int position = misses.positions.get(i);
+            VirtualFile file = files.get(position);
+            result[position] = iconIds[i];
+            put(slotOf(file), new Entry(file, iconIds[i] != null ? iconIds[i] : NO_ICON), stamp);
+        }
+    }
+
+    /**
+     * Stores {@code entry} unless an invalidation happened since
+     * {@code stamp} was read. An invalidation may also land between the
+     * check and the write; it has then either cleared the slot after the
+     * write, or the second check sees it and removes the entry again.
+     */
+    private void put(int slot, @NotNull Entry entry, int stamp) {
+        if (invalidations.get() != stamp) {
+            return;
+        }
+        slots.set(slot, entry);
+        if (invalidations.get() != stamp) {
+            slots.compareAndSet(slot, entry, null);
+        }
+    }
+
+    /**
+     * Drops the cached id of {@code file}, if any.
+     */
+    public void invalidate(@NotNull VirtualFile file) {
+        invalidations.incrementAndGet();
+        int slot = slotOf(file);
+        Entry entry = slots.get(slot);
+        if (entry != null && entry.file == file) {
+            slots.compareAndSet(slot, entry, null);
+        }
+    }
+
+    public void clear() {
+        invalidations.incrementAndGet();
+        for (int i = 0; i < SIZE; i++) {
+            slots.set(i, null);
+        }
+    }
+
+    @Nullable
+    private static String resolve(@NotNull VirtualFile file) {
+        BeardedIconIndex index = BeardedIconIndex.current();
+        return file.isDirectory()
+            ? index.folderIconId(file.getNameSequence())
+            : index.fileIconId(file.getNameSequence());
+    }
+
+    private static int slotOf(@NotNull VirtualFile file) {
+        int h = System.identityHashCode(file);
+        return (h ^ (h >>> 16)) & (SIZE - 1);
+    }
+
+    private static final class Misses {
+        final List<Integer> positions = new ArrayList<>();
+        final List<CharSequence> names = new ArrayList<>();
+
+        void add(int position, @NotNull VirtualFile file) {
+            positions.add(position);
+            names.add(file.getNameSequence());
+        }
+
+        boolean isEmpty() {
+            return positions.isEmpty();
+        }
+    }
+
+    private static final class Entry {
+        final VirtualFile file;
+        final String iconId;
+
+        Entry(VirtualFile file, String iconId) {
+            this.file = file;
+            this.iconId = iconId;
+        }
+    }
+}
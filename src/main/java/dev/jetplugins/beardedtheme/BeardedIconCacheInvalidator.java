@@ -0,0 +1,32 @@
+package dev.jetplugins.beardedtheme;
+
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Evicts {@link BeardedIconCache} entries for files that were renamed, moved
+ * or deleted. Content changes never affect a name-based icon and are ignored.
+ */
+public final class BeardedIconCacheInvalidator implements BulkFileListener {
+
+    @Override
+    public void after(@NotNull List<? extends VFileEvent> events) {
+        BeardedIconCache cache = null;
+        for (VFileEvent event : events) {
+            if (event instanceof VFileMoveEvent
+                || event instanceof VFileDeleteEvent
+                || event instanceof VFilePropertyChangeEvent && ((VFilePropertyChangeEvent) event).isRename()) {
+                if (cache == null) {
+                    cache = BeardedIconCache.getInstance();
+                }
+                cache.invalidate(event.getFile());
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package dev.jetplugins.beardedtheme;
+
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.ui.Messages;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Dumps the {@link BeardedIconMetrics} counters to idea.log and shows them
+ * in a dialog, so the cost of the icon provider can be checked on a real
+ * project.
+ */
+public class BeardedIconDiagnosticsAction extends AnAction implements DumbAware {
+
+    private static final Logger LOG = Logger.getInstance(BeardedIconDiagnosticsAction.class);
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        String report = BeardedIconMetrics.report();
+        LOG.info(report);
+        Messages.showInfoMessage(e.getProject(), report, "Bearded Theme Icon Diagnostics");
+    }
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+}
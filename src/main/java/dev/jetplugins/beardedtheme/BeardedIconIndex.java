@@ -0,0 +1,554 @@
+package dev.jetplugins.beardedtheme;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Compiled lookup tables that map file and folder names to Bearded icon ids.
+ *
+ * Names are matched case-insensitively by {@link BeardedNameTrie}, so resolving
+ * a name does not allocate: exact file names are checked first, then the
+ * glob rules compiled into {@link BeardedGlobMatcher}, and finally the
+ * extension is matched by walking the name backwards from its last character.
+ * Extensions may span several dots ({@code d.ts}, {@code tar.gz}); the same
+ * backward pass finds the longest registered one, so {@code App.test.tsx}
+ * resolves through {@code test.tsx} while {@code App.tsx} still resolves
+ * through {@code tsx}.
+ */
+final class BeardedIconIndex {
+
+    private static final BeardedIconIndex DEFAULT = defaults().build();
+
+    // The index used for resolution: the defaults merged with the user's
+    // associations. Replaced as a whole, so readers never see a partial index.
+    private static volatile BeardedIconIndex current = DEFAULT;
+
+    private final BeardedNameTrie fileNames;
+    private final BeardedGlobMatcher patterns;
+    private final BeardedNameTrie extensions;
+    private final BeardedNameTrie folders;
+
+    private BeardedIconIndex(@NotNull Builder builder) {
+        this.fileNames = builder.fileNames.build();
+        this.patterns = builder.patterns.build();
+        this.extensions = builder.extensions.build();
+        this.folders = builder.folders.build();
+    }
+
+    /**
+     * Returns the built-in associations only.
+     */
+    @NotNull
+    static BeardedIconIndex getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the index currently used to resolve icons.
+     */
+    @NotNull
+    static BeardedIconIndex current() {
+        return current;
+    }
+
+    static void install(@NotNull BeardedIconIndex index) {
+        current = index;
+    }
+
+    @Nullable
+    String fileIconId(@NotNull CharSequence fileName) {
+        String iconId = fileNames.get(fileName);
+        if (iconId != null) {
+            BeardedIconMetrics.hit(BeardedIconMetrics.Table.FILE_NAME);
+            return iconId;
+        }
+        iconId = patterns.match(fileName);
+        if (iconId != null) {
+            BeardedIconMetrics.hit(BeardedIconMetrics.Table.PATTERN);
+            return iconId;
+        }
+        iconId = extensions.matchSuffix(fileName);
+        if (iconId != null) {
+            BeardedIconMetrics.hit(BeardedIconMetrics.Table.EXTENSION);
+        } else {
+            BeardedIconMetrics.miss();
+        }
+        return iconId;
+    }
+
+    @Nullable
+    String folderIconId(@NotNull CharSequence folderName) {
+        String iconId = folders.get(folderName);
+        if (iconId != null) {
+            BeardedIconMetrics.hit(BeardedIconMetrics.Table.FOLDER);
+        } else {
+            BeardedIconMetrics.miss();
+        }
+        return iconId;
+    }
+
+    /**
+     * Resolves the icon ids of many file names in one pass; element {@code i}
+     * of the result belongs to {@code names.get(i)}. Names repeated within
+     * the batch, compared case-insensitively, are looked up only once.
+     */
+    @NotNull
+    String[] fileIconIds(@NotNull List<? extends CharSequence> names) {
+        return new Batch(this, false, names.size()).resolve(names);
+    }
+
+    /**
+     * Folder counterpart of {@link #fileIconIds}.
+     */
+    @NotNull
+    String[] folderIconIds(@NotNull List<? extends CharSequence> names) {
+        return new Batch(this, true, names.size()).resolve(names);
+    }
+
+    /**
+     * Returns the distinct icon ids this index can resolve to.
+     */
+    @NotNull
+    Set<String> iconIds() {
+        Set<String> ids = new TreeSet<>();
+        fileNames.collectValues(ids);
+        patterns.collectValues(ids);
+        extensions.collectValues(ids);
+        folders.collectValues(ids);
+        return ids;
+    }
+
+    @NotNull
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns a builder pre-populated with the built-in Bearded associations.
+     */
+    @NotNull
+    static Builder defaults() {
+        Builder b = new Builder();
+        // Programming languages
+        b.extension("java", "java");
+        b.extension("kt", "kotlin");
+        b.extension("kts", "kotlin");
+        b.extension("py", "python");
+        b.extension("pyw", "python");
+        b.extension("js", "javascript");
+        b.extension("mjs", "javascript");
+        b.extension("cjs", "javascript");
+        b.extension("jsx", "react");
+        b.extension("ts", "typescript");
+        b.extension("tsx", "react_ts");
+        b.extension("go", "go");
+        b.extension("rs", "rust");
+        b.extension("rb", "ruby");
+        b.extension("php", "php");
+        b.extension("cs", "csharp");
+        b.extension("cpp", "cpp");
+        b.extension("cc", "cpp");
+        b.extension("cxx", "cpp");
+        b.extension("c", "c");
+        b.extension("h", "c_header");
+        b.extension("hpp", "cpp_header");
+        b.extension("swift", "swift");
+        b.extension("scala", "scala");
+        b.extension("clj", "clojure");
+        b.extension("ex", "elixir");
+        b.extension("exs", "elixir");
+        b.extension("erl", "erlang");
+        b.extension("hs", "haskell");
+        b.extension("lua", "lua");
+        b.extension("r", "r");
+        b.extension("dart", "dart");
+        b.extension("vue", "vue");
+        b.extension("svelte", "svelte");
+
+        // Markup / Config
+        b.extension("html", "html");
+        b.extension("htm", "html");
+        b.extension("css", "css");
+        b.extension("scss", "sass");
+        b.extension("sass", "sass");
+        b.extension("less", "less");
+        b.extension("styl", "stylus");
+        b.extension("xml", "xml");
+        b.extension("svg", "svg");
+        b.extension("json", "json");
+        b.extension("json5", "json");
+        b.extension("yaml", "yaml");
+        b.extension("yml", "yaml");
+        b.extension("toml", "toml");
+        b.extension("ini", "settings");
+        b.extension("cfg", "settings");
+        b.extension("conf", "settings");
+        b.extension("properties", "settings");
+
+        // Documentation
+        b.extension("md", "markdown");
+        b.extension("mdx", "markdown");
+        b.extension("txt", "text");
+        b.extension("rst", "text");
+        b.extension("tex", "tex");
+        b.extension("pdf", "pdf");
+
+        // Shell / Scripts
+        b.extension("sh", "shell");
+        b.extension("bash", "shell");
+        b.extension("zsh", "shell");
+        b.extension("fish", "shell");
+        b.extension("bat", "shell");
+        b.extension("cmd", "shell");
+        b.extension("ps1", "powershell");
+
+        // Data
+        b.extension("sql", "database");
+        b.extension("db", "database");
+        b.extension("sqlite", "database");
+        b.extension("csv", "csv");
+        b.extension("tsv", "csv");
+        b.extension("graphql", "graphql");
+        b.extension("gql", "graphql");
+        b.extension("proto", "protobuf");
+
+        // Build / Config files
+        b.extension("gradle", "gradle");
+        b.extension("groovy", "groovy");
+        b.extension("tf", "terraform");
+        b.extension("hcl", "terraform");
+
+        // Images
+        b.extension("png", "image");
+        b.extension("jpg", "image");
+        b.extension("jpeg", "image");
+        b.extension("gif", "image");
+        b.extension("ico", "image");
+        b.extension("webp", "image");
+        b.extension("bmp", "image");
+
+        // Archives
+        b.extension("zip", "archive");
+        b.extension("tar", "archive");
+        b.extension("gz", "archive");
+        b.extension("rar", "archive");
+        b.extension("7z", "archive");
+        b.extension("jar", "archive");
+
+        // Compound extensions (longest registered suffix wins)
+        b.extension("d.ts", "typescript_def");
+        b.extension("d.mts", "typescript_def");
+        b.extension("d.cts", "typescript_def");
+        for (String ext : new String[]{"js", "jsx", "ts", "tsx", "mjs", "cjs", "mts", "cts"}) {
+            b.extension("test." + ext, "test");
+            b.extension("spec." + ext, "test");
+        }
+        b.extension("tar.gz", "archive");
+        b.extension("tar.bz2", "archive");
+        b.extension("tar.xz", "archive");
+        b.extension("tgz", "archive");
+        b.extension("bz2", "archive");
+        b.extension("xz", "archive");
+
+        // Docker
+        b.extension("dockerfile", "docker");
+
+        // Lock files
+        b.extension("lock", "lock");
+
+        // Certificates
+        b.extension("pem", "key");
+        b.extension("key", "key");
+        b.extension("cert", "key");
+        b.extension("crt", "key");
+
+        // Notebooks
+        b.extension("ipynb", "jupyter");
+
+        // Specific file names
+        b.fileName("dockerfile", "docker");
+        b.fileName("docker-compose.yml", "docker");
+        b.fileName("docker-compose.yaml", "docker");
+        b.fileName(".dockerignore", "docker");
+        b.fileName("package.json", "nodejs");
+        b.fileName("package-lock.json", "nodejs");
+        b.fileName("tsconfig.json", "typescript");
+        b.fileName("jsconfig.json", "javascript");
+        b.fileName(".gitignore", "git");
+        b.fileName(".gitattributes", "git");
+        b.fileName(".gitmodules", "git");
+        b.fileName(".editorconfig", "editorconfig");
+        b.fileName(".prettierrc", "prettier");
+        b.fileName(".prettierignore", "prettier");
+        b.fileName(".eslintrc", "eslint");
+        b.fileName(".eslintignore", "eslint");
+        b.fileName(".babelrc", "babel");
+        b.fileName("build.gradle", "gradle");
+        b.fileName("build.gradle.kts", "gradle");
+        b.fileName("settings.gradle", "gradle");
+        b.fileName("settings.gradle.kts", "gradle");
+        b.fileName("pom.xml", "maven");
+        b.fileName("makefile", "makefile");
+        b.fileName("CMakeLists.txt", "cmake");
+        b.fileName("LICENSE", "license");
+        b.fileName("LICENSE.md", "license");
+        b.fileName("CHANGELOG.md", "changelog");
+        b.fileName("README.md", "readme");
+        b.fileName(".env", "env");
+        b.fileName("go.mod", "go");
+        b.fileName("go.sum", "go");
+        b.fileName("Cargo.toml", "rust");
+        b.fileName("Cargo.lock", "rust");
+        b.fileName("Gemfile", "ruby");
+        b.fileName("Rakefile", "ruby");
+        b.fileName("requirements.txt", "python");
+        b.fileName("setup.py", "python");
+        b.fileName("pyproject.toml", "python");
+        b.fileName("Pipfile", "python");
+        b.fileName("nginx.conf", "nginx");
+        b.fileName(".npmrc", "npm");
+        b.fileName(".nvmrc", "nodejs");
+        b.fileName("yarn.lock", "yarn");
+        b.fileName(".yarnrc", "yarn");
+        b.fileName("pnpm-lock.yaml", "pnpm");
+
+        // File name patterns (first match wins, so specific rules go first)
+        b.pattern("dockerfile.*", "docker");
+        b.pattern("docker-compose.*.{yml,yaml}", "docker");
+        b.pattern("compose.{yml,yaml}", "docker");
+        b.pattern(".env.*", "env");
+        b.pattern("tsconfig.*.json", "typescript");
+        b.pattern("jsconfig.*.json", "javascript");
+        b.pattern(".prettierrc.*", "prettier");
+        b.pattern("prettier.config.*", "prettier");
+        b.pattern(".eslintrc.*", "eslint");
+        b.pattern("eslint.config.*", "eslint");
+        b.pattern("webpack.*.{js,ts,mjs,cjs}", "webpack");
+        b.pattern("vite.config.*", "vite");
+        b.pattern("vitest.config.*", "vitest");
+        b.pattern("vitest.workspace.*", "vitest");
+        b.pattern("rollup.config.*", "rollup");
+        b.pattern("babel.config.*", "babel");
+        b.pattern(".babelrc.*", "babel");
+        b.pattern("jest.config.*", "jest");
+        b.pattern("jest.setup.*", "jest");
+        b.pattern("*.config.{js,ts,mjs,cjs,mts,cts}", "settings");
+        b.pattern("requirements*.txt", "python");
+        b.pattern("{license,licence}.{md,txt}", "license");
+        b.pattern("changelog.{txt,rst}", "changelog");
+        b.pattern("readme.{txt,rst}", "readme");
+        b.pattern("*.lock.json", "lock");
+
+        // Folder names
+        b.folder("src", "folder_src");
+        b.folder("source", "folder_src");
+        b.folder("test", "folder_test");
+        b.folder("tests", "folder_test");
+        b.folder("__tests__", "folder_test");
+        b.folder("spec", "folder_test");
+        b.folder("node_modules", "folder_node");
+        b.folder(".git", "folder_git");
+        b.folder(".github", "folder_github");
+        b.folder(".vscode", "folder_vscode");
+        b.folder(".idea", "folder_idea");
+        b.folder("build", "folder_build");
+        b.folder("dist", "folder_build");
+        b.folder("out", "folder_build");
+        b.folder("target", "folder_build");
+        b.folder("public", "folder_public");
+        b.folder("static", "folder_public");
+        b.folder("assets", "folder_assets");
+        b.folder("images", "folder_images");
+        b.folder("img", "folder_images");
+        b.folder("icons", "folder_images");
+        b.folder("fonts", "folder_fonts");
+        b.folder("styles", "folder_styles");
+        b.folder("css", "folder_styles");
+        b.folder("components", "folder_components");
+        b.folder("pages", "folder_pages");
+        b.folder("views", "folder_views");
+        b.folder("layouts", "folder_layouts");
+        b.folder("config", "folder_config");
+        b.folder("configs", "folder_config");
+        b.folder("lib", "folder_lib");
+        b.folder("libs", "folder_lib");
+        b.folder("vendor", "folder_lib");
+        b.folder("utils", "folder_utils");
+        b.folder("helpers", "folder_utils");
+        b.folder("hooks", "folder_hooks");
+        b.folder("api", "folder_api");
+        b.folder("routes", "folder_routes");
+        b.folder("middleware", "folder_middleware");
+        b.folder("models", "folder_models");
+        b.folder("controllers", "folder_controllers");
+        b.folder("services", "folder_services");
+        b.folder("types", "folder_types");
+        b.folder("interfaces", "folder_types");
+        b.folder("docs", "folder_docs");
+        b.folder("docker", "folder_docker");
+        b.folder("scripts", "folder_scripts");
+        b.folder("resources", "folder_resources");
+        b.folder("res", "folder_resources");
+        b.folder("i18n", "folder_i18n");
+        b.folder("locales", "folder_i18n");
+        b.folder("lang", "folder_i18n");
+        b.folder("translations", "folder_i18n");
+        return b;
+    }
+
+    /**
+     * Per-batch memo of resolved names: an open-addressing table keyed by
+     * the case-folded hash, which is computed in the single folding pass over
+     * each name. Once the table is full, further names are still resolved,
+     * just not memoized.
+     */
+    private static final class Batch {
+        private static final int MAX_SLOTS = 1 << 14;
+        // Compared by identity, see BeardedIconCache.
+        private static final String NO_ICON = new String("");
+
+        private final BeardedIconIndex index;
+        private final boolean folders;
+        private final int mask;
+        private final int[] hashes;
+        private final CharSequence[] keys;
+        private final String[] values;
+        private int size;
+
+        Batch(@NotNull BeardedIconIndex index, boolean folders, int expected) {
+            this.index = index;
+            this.folders = folders;
+            int slots = Integer.highestOneBit(Math.max(Math.min(expected, MAX_SLOTS / 2), 4) * 2 - 1) << 1;
+            this.mask = slots - 1;
+            this.hashes = new int[slots];
+            this.keys = new CharSequence[slots];
+            this.values = new String[slots];
+        }
+
+        @NotNull
+        String[] resolve(@NotNull List<? extends CharSequence> names) {
+            String[] result = new String[names.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = resolve(names.get(i));
+            }
+            return result;
+        }
+
+        @Nullable
+        private String resolve(@NotNull CharSequence name) {
+            int hash = foldedHash(name);
+            int slot = hash & mask;
+            while (keys[slot] != null) {
+                if (hashes[slot] == hash && equalsFolded(keys[slot], name)) {
+                    String iconId = values[slot];
+                    return iconId == NO_ICON ? null : iconId;
+                }
+                slot = (slot + 1) & mask;
+            }
+            String iconId = folders ? index.folderIconId(name) : index.fileIconId(name);
+            // Keep at least a quarter of the table free so probes stay short.
+            if (size < mask - (mask >> 2)) {
+                hashes[slot] = hash;
+                keys[slot] = name;
+                values[slot] = iconId != null ? iconId : NO_ICON;
+                size++;
+            }
+            return iconId;
+        }
+
+        private static int foldedHash(@NotNull CharSequence name) {
+            int h = 0;
+            for (int i = 0; i < name.length(); i++) {
+                h = 31 * h + BeardedNameTrie.fold(name.charAt(i));
+            }
+            return h ^ (h >>> 16);
+        }
+
+        private static boolean equalsFolded(@NotNull CharSequence a, @NotNull CharSequence b) {
+            if (a.length() != b.length()) {
+                return false;
+            }
+            for (int i = 0; i < a.length(); i++) {
+                if (BeardedNameTrie.fold(a.charAt(i)) != BeardedNameTrie.fold(b.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    static final class Builder {
+
+        private final BeardedNameTrie.Builder fileNames = new BeardedNameTrie.Builder();
+        private final BeardedGlobMatcher.Builder patterns = new BeardedGlobMatcher.Builder();
+        private final BeardedNameTrie.Builder extensions = new BeardedNameTrie.Builder();
+        private final BeardedNameTrie.Builder folders = new BeardedNameTrie.Builder();
+
+        private Builder() {
+        }
+
+        /**
+         * Maps files ending in {@code "." + extension} to {@code iconId}.
+         * {@code extension} may itself contain dots, e.g. {@code "d.ts"}.
+         */
+        @NotNull
+        Builder extension(@NotNull String extension, @NotNull String iconId) {
+            extensions.putReversed("." + extension, iconId);
+            return this;
+        }
+
+        @NotNull
+        Builder fileName(@NotNull String fileName, @NotNull String iconId) {
+            fileNames.put(fileName, iconId);
+            return this;
+        }
+
+        /**
+         * Maps file names matching {@code glob} to {@code iconId}. Patterns are
+         * tried in registration order, after exact file names and before
+         * extensions; see {@link BeardedGlobMatcher} for the syntax.
+         */
+        @NotNull
+        Builder pattern(@NotNull String glob, @NotNull String iconId) {
+            patterns.add(glob, iconId);
+            return this;
+        }
+
+        @NotNull
+        Builder folder(@NotNull String folderName, @NotNull String iconId) {
+            folders.put(folderName, iconId);
+            return this;
+        }
+
+        /**
+         * Adds user-defined associations on top of the ones already registered.
+         * File names containing glob characters become pattern rules that take
+         * precedence over the built-in patterns.
+         */
+        @NotNull
+        Builder custom(@NotNull Map<String, String> customExtensions,
+                       @NotNull Map<String, String> customFileNames,
+                       @NotNull Map<String, String> customFolders) {
+            customExtensions.forEach((ext, iconId) -> extension(ext.startsWith(".") ? ext.substring(1) : ext, iconId));
+            customFileNames.forEach((name, iconId) -> {
+                if (BeardedGlobMatcher.Builder.isGlob(name)) {
+                    patterns.addOverride(name, iconId);
+                } else {
+                    fileName(name, iconId);
+                }
+            });
+            customFolders.forEach(this::folder);
+            return this;
+        }
+
+        @NotNull
+        BeardedIconIndex build() {
+            return new BeardedIconIndex(this);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package dev.jetplugins.beardedtheme;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Always-on counters for icon resolution.
+ *
+ * Every counter is a {@link LongAdder}, so recording from the EDT and from
+ * the platform's background icon evaluation never contends on a shared
+ * field. Provider latency is kept as a histogram with power-of-two
+ * nanosecond buckets. {@link #report()} formats a snapshot for idea.log; it
+ * is produced by the "Bearded Theme: Icon Diagnostics" action.
+ */
+final class BeardedIconMetrics {
+
+    enum ElementType {
+        FILE("files"),
+        DIRECTORY("directories"),
+        OTHER("other elements");
+
+        final String title;
+
+        ElementType(String title) {
+            this.title = title;
+        }
+    }
+
+    enum Table {
+        FILE_NAME("file name"),
+        PATTERN("pattern"),
+        EXTENSION("extension"),
+        FOLDER("folder");
+
+        final String title;
+
+        Table(String title) {
+            this.title = title;
+        }
+    }
+
+    // Bucket i counts calls that took [2^(i+MIN_SHIFT-1), 2^(i+MIN_SHIFT)) ns;
+    // the first and last buckets are open-ended.
+    private static final int MIN_SHIFT = 7;
+    private static final int BUCKETS = 12;
+
+    private static final LongAdder[] CALLS = adders(ElementType.values().length);
+    private static final LongAdder[] HITS = adders(Table.values().length);
+    private static final LongAdder MISSES = new LongAdder();
+    private static final LongAdder CACHE_HITS = new LongAdder();
+    private static final LongAdder CACHE_MISSES = new LongAdder();
+    private static final LongAdder LOAD_FAILURES = new LongAdder();
+    private static final LongAdder[] LATENCY = adders(BUCKETS);
+    private static final LongAdder LATENCY_TOTAL = new LongAdder();
+
+    private BeardedIconMetrics() {
+    }
+
+    static void call(@NotNull ElementType type, long nanos) {
+        CALLS[type.ordinal()].increment();
+        LATENCY[bucketOf(nanos)].increment();
+        LATENCY_TOTAL.add(nanos);
+    }
+
+    /**
+     * Records a call that was turned away before any resolution, which is
+     * not timed.
+     */
+    static void rejected(@NotNull ElementType type) {
+        CALLS[type.ordinal()].increment();
+    }
+
+    static void hit(@NotNull Table table) {
+        HITS[table.ordinal()].increment();
+    }
+
+    static void miss() {
+        MISSES.increment();
+    }
+
+    static void cacheHit() {
+        CACHE_HITS.increment();
+    }
+
+    static void cacheMiss() {
+        CACHE_MISSES.increment();
+    }
+
+    static void loadFailure() {
+        LOAD_FAILURES.increment();
+    }
+
+    static long calls(@NotNull ElementType type) {
+        return CALLS[type.ordinal()].sum();
+    }
+
+    static long hits(@NotNull Table table) {
+        return HITS[table.ordinal()].sum();
+    }
+
+    static long misses() {
+        return MISSES.sum();
+    }
+
+    static void reset() {
+        for (LongAdder adder : CALLS) {
+            adder.reset();
+        }
+        for (LongAdder adder : HITS) {
+            adder.reset();
+        }
+        for (LongAdder adder : LATENCY) {
+            adder.reset();
+        }
+        MISSES.reset();
+        CACHE_HITS.reset();
+        CACHE_MISSES.reset();
+        LOAD_FAILURES.reset();
+        LATENCY_TOTAL.reset();
+    }
+
+    /**
+     * Formats the current counters as a multi-line report.
+     */
+    @NotNull
+    static String report() {
+        StringBuilder sb = new StringBuilder("Bearded Theme icon metrics\n");
+        sb.append("  provider calls:");
+        for (ElementType type : ElementType.values()) {
+            sb.append(' ').append(type.title).append('=').append(calls(type));
+        }
+        sb.append('\n');
+
+        sb.append("  resolutions:");
+        for (Table table : Table.values()) {
+            sb.append(' ').append(table.title).append('=').append(hits(table));
+        }
+        sb.append(" miss=").append(misses()).append('\n');
+        sb.append("  cache: hits=").append(CACHE_HITS.sum()).append(" misses=").append(CACHE_MISSES.sum()).append('\n');
+        sb.append("  icon load failures: ").append(LOAD_FAILURES.sum()).append('\n');
+
+        long timed = 0;
+        for (LongAdder adder : LATENCY) {
+            timed += adder.sum();
+        }
+        sb.append("  latency: mean=").append(timed == 0 ? 0 : LATENCY_TOTAL.sum() / timed).append(" ns\n");
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = LATENCY[i].sum();
+            if (count == 0) {
+                continue;
+            }
+            sb.append("    ");
+            if (i == 0) {
+                sb.append("< ").append(formatNanos(1L << MIN_SHIFT));
+            } else if (i == BUCKETS - 1) {
+                sb.append(">= ").append(formatNanos(1L << (i + MIN_SHIFT - 1)));
+            } else {
+                sb.append(formatNanos(1L << (i + MIN_SHIFT - 1))).append(" - ").append(formatNanos(1L << (i + MIN_SHIFT)));
+            }
+            sb.append(": ").append(count).append('\n');
+        }
+        return sb.toString();
+    }
+
+    static int bucketOf(long nanos) {
+        int bits = 64 - Long.numberOfLeadingZeros(Math.max(nanos, 0));
+        return Math.min(Math.max(bits - MIN_SHIFT, 0), BUCKETS - 1);
+    }
+
+    @NotNull
+    private static String formatNanos(long nanos) {
+        return nanos + " ns";
+    }
+
+    @NotNull
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
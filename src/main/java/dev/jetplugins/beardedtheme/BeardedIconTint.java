@@ -0,0 +1,158 @@
+package dev.jetplugins.beardedtheme;
+
+import com.google.gson.JsonElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recolors the icon atlas to a theme's palette.
+ *
+ * Every Bearded icon is drawn in one accent color. For each atlas cell the
+ * accent hue is estimated from its saturated pixels and replaced by the
+ * nearest hue of the theme's {@code icons.ColorPalette} object colors; each
+ * pixel keeps its own saturation, brightness and alpha, so shading and
+ * anti-aliasing survive. Neutral icons (no saturated pixels) are left as is.
+ */
+final class BeardedIconTint {
+
+    // Pixels below these are shading or neutral body fills, not the accent.
+    private static final float MIN_ACCENT_SATURATION = 0.25f;
+    private static final float MIN_ACCENT_BRIGHTNESS = 0.2f;
+    private static final float MIN_TINTED_SATURATION = 0.08f;
+
+    private BeardedIconTint() {
+    }
+
+    /**
+     * Returns the hues of the saturated {@code Objects.*} colors in the
+     * {@code icons.ColorPalette} of a parsed theme file.
+     */
+    @NotNull
+    static float[] paletteHues(@NotNull JsonElement themeJson) {
+        JsonElement palette = member(member(themeJson, "icons"), "ColorPalette");
+        List<Float> hues = new ArrayList<>();
+        if (palette != null && palette.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> entry : palette.getAsJsonObject().entrySet()) {
+                JsonElement value = entry.getValue();
+                if (!entry.getKey().startsWith("Objects.") || !value.isJsonPrimitive()
+                    || !value.getAsJsonPrimitive().isString()) {
+                    continue;
+                }
+                Color color;
+                try {
+                    color = Color.decode(value.getAsString());
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                float[] hsb = Color.RGBtoHSB(color.getRed(), color.getGreen(), color.getBlue(), null);
+                if (hsb[1] >= MIN_ACCENT_SATURATION && hsb[2] >= MIN_ACCENT_BRIGHTNESS) {
+                    hues.add(hsb[0]);
+                }
+            }
+        }
+        float[] result = new float[hues.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = hues.get(i);
+        }
+        return result;
+    }
+
+    @Nullable
+    private static JsonElement member(@Nullable JsonElement json, @NotNull String key) {
+        return json != null && json.isJsonObject() ? json.getAsJsonObject().get(key) : null;
+    }
+
+    /**
+     * Returns a recolored copy of {@code atlas}, laid out in square cells of
+     * {@code cell} pixels. Returns {@code atlas} itself if {@code hues} is empty.
+     */
+    @NotNull
+    static BufferedImage tint(@NotNull BufferedImage atlas, int cell, @NotNull float[] hues) {
+        if (hues.length == 0) {
+            return atlas;
+        }
+        int width = atlas.getWidth();
+        int height = atlas.getHeight();
+        int[] pixels = atlas.getRGB(0, 0, width, height, null, 0, width);
+        float[] hsb = new float[3];
+        for (int cy = 0; cy + cell <= height; cy += cell) {
+            for (int cx = 0; cx + cell <= width; cx += cell) {
+                tintCell(pixels, width, cx, cy, cell, hues, hsb);
+            }
+        }
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        result.setRGB(0, 0, width, height, pixels, 0, width);
+        return result;
+    }
+
+    private static void tintCell(@NotNull int[] pixels, int stride, int cx, int cy, int cell,
+                                 @NotNull float[] hues, @NotNull float[] hsb) {
+        // Circular mean of the accent hue, weighted by alpha and saturation.
+        double sumX = 0;
+        double sumY = 0;
+        for (int y = cy; y < cy + cell; y++) {
+            for (int x = cx; x < cx + cell; x++) {
+                int argb = pixels[y * stride + x];
+                int alpha = argb >>> 24;
+                if (alpha == 0) {
+                    continue;
+                }
+                Color.RGBtoHSB((argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF, hsb);
+                if (hsb[1] < MIN_ACCENT_SATURATION || hsb[2] < MIN_ACCENT_BRIGHTNESS) {
+                    continue;
+                }
+                double weight = alpha / 255.0 * hsb[1];
+                double angle = hsb[0] * 2 * Math.PI;
+                sumX += Math.cos(angle) * weight;
+                sumY += Math.sin(angle) * weight;
+            }
+        }
+        if (sumX == 0 && sumY == 0) {
+            return;
+        }
+        float accent = (float) (Math.atan2(sumY, sumX) / (2 * Math.PI));
+        if (accent < 0) {
+            accent += 1;
+        }
+        float shift = nearest(accent, hues) - accent;
+        if (shift == 0) {
+            return;
+        }
+
+        for (int y = cy; y < cy + cell; y++) {
+            for (int x = cx; x < cx + cell; x++) {
+                int i = y * stride + x;
+                int argb = pixels[i];
+                if (argb >>> 24 == 0) {
+                    continue;
+                }
+                Color.RGBtoHSB((argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF, hsb);
+                if (hsb[1] < MIN_TINTED_SATURATION) {
+                    continue;
+                }
+                int rgb = Color.HSBtoRGB(hsb[0] + shift, hsb[1], hsb[2]);
+                pixels[i] = (argb & 0xFF000000) | (rgb & 0x00FFFFFF);
+            }
+        }
+    }
+
+    static float nearest(float hue, @NotNull float[] hues) {
+        float best = hues[0];
+        float bestDistance = Float.MAX_VALUE;
+        for (float candidate : hues) {
+            float d = Math.abs(candidate - hue);
+            d = Math.min(d, 1 - d);
+            if (d < bestDistance) {
+                bestDistance = d;
+                best = candidate;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,237 @@
+package dev.jetplugins.beardedtheme;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.intellij.ide.ui.LafManager;
+import com.intellij.ide.ui.LafManagerListener;
+import com.intellij.ide.ui.laf.UIThemeLookAndFeelInfo;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.startup.ProjectActivity;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import kotlin.Unit;
+import kotlin.coroutines.Continuation;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the icon atlases tinted to the active Bearded theme.
+ *
+ * On a theme switch the theme's palette is read and the atlases are
+ * recolored once, on a background thread, then installed in
+ * {@link BeardedIconAtlas}; painting only ever blits the finished images.
+ * When icons are first painted at a scale without a bundled atlas, one is
+ * rasterized from the SVG icons at that scale and recolored the same way,
+ * and from then on every theme is tinted at that scale too.
+ * The recolored sets of the last few themes are kept in a small LRU cache,
+ * so switching back and forth does not recompute them, while memory stays
+ * bounded no matter how many of the themes a user tries.
+ *
+ * The first tint is computed once the first project has opened.
+ */
+public final class BeardedIconTinter implements ProjectActivity, LafManagerListener, BeardedThemeSettingsListener {
+
+    private static final Logger LOG = Logger.getInstance(BeardedIconTinter.class);
+
+    private static final int MAX_CACHED_THEMES = 4;
+
+    private static final ExecutorService EXECUTOR =
+        AppExecutorUtil.createBoundedApplicationPoolExecutor("Bearded Icon Tinter", 1);
+
+    // Access-ordered, guarded by itself.
+    private static final Map<String, BeardedIconAtlas.Tint> CACHE = new LinkedHashMap<>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, BeardedIconAtlas.Tint> eldest) {
+            return size() > MAX_CACHED_THEMES;
+        }
+    };
+
+    // Scales, in percent, that icons were painted at without a bundled atlas.
+    private static final Set<Integer> EXTRA_SCALES = ConcurrentHashMap.newKeySet();
+
+    private static final AtomicLong REQUESTS = new AtomicLong();
+
+    private static final AtomicBoolean STARTED = new AtomicBoolean();
+
+    @Nullable
+    @Override
+    public Object execute(@NotNull Project project, @NotNull Continuation<? super Unit> continuation) {
+        if (STARTED.compareAndSet(false, true)) {
+            update();
+        }
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public void lookAndFeelChanged(@NotNull LafManager source) {
+        update();
+    }
+
+    @Override
+    public void settingsChanged(@NotNull BeardedThemeSettings.Snapshot oldSettings,
+                                @NotNull BeardedThemeSettings.Snapshot newSettings) {
+        if (oldSettings.isIconTintEnabled() != newSettings.isIconTintEnabled()) {
+            update();
+        }
+    }
+
+    /**
+     * Installs the tinted atlases for the current theme, computing them in
+     * the background if they are not cached or lack a scale in use.
+     */
+    static void update() {
+        long request = REQUESTS.incrementAndGet();
+        String slug = BeardedThemeSettings.snapshot().isIconTintEnabled() ? activeThemeSlug() : null;
+        if (slug == null) {
+            install(request, null);
+            return;
+        }
+        BeardedIconAtlas.Tint cached;
+        synchronized (CACHE) {
+            cached = CACHE.get(slug);
+        }
+        if (cached != null && cached.scaledImages.keySet().containsAll(EXTRA_SCALES)) {
+            install(request, cached);
+            return;
+        }
+        // Show the cached atlases, or the original colors rather than the
+        // previous theme's, until the missing ones are ready.
+        BeardedIconAtlas.setTint(cached);
+        EXECUTOR.execute(() -> {
+            if (request != REQUESTS.get()) {
+                return;
+            }
+            long start = System.nanoTime();
+            BeardedIconAtlas.Tint tint = compute(slug, cached);
+            if (tint == null) {
+                return;
+            }
+            synchronized (CACHE) {
+                CACHE.put(slug, tint);
+            }
+            LOG.info("Bearded Theme: tinted icons for " + slug + " in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+            install(request, tint);
+        });
+    }
+
+    /**
+     * Adds a scale, in percent, that icons are painted at but that has no
+     * bundled atlas, and tints the current theme at it in the background.
+     * Cheap once the scale is known, so it can be called while painting.
+     */
+    static void addScale(int percent) {
+        if (EXTRA_SCALES.add(percent)) {
+            update();
+        }
+    }
+
+    /**
+     * Computes and caches the tinted atlases of {@code slug} in the
+     * background without installing them, so a later switch to that theme
+     * finds them ready.
+     */
+    static void prewarm(@NotNull String slug) {
+        if (!BeardedThemeSettings.snapshot().isIconTintEnabled()) {
+            return;
+        }
+        synchronized (CACHE) {
+            if (CACHE.containsKey(slug)) {
+                return;
+            }
+        }
+        EXECUTOR.execute(() -> {
+            BeardedIconAtlas.Tint tint = compute(slug, null);
+            if (tint != null) {
+                synchronized (CACHE) {
+                    CACHE.putIfAbsent(slug, tint);
+                }
+            }
+        });
+    }
+
+    static void clear() {
+        STARTED.set(false);
+        // Drops installs still pending from earlier requests.
+        REQUESTS.incrementAndGet();
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+        EXTRA_SCALES.clear();
+        BeardedIconAtlas.setTint(null);
+    }
+
+    private static void install(long request, @Nullable BeardedIconAtlas.Tint tint) {
+        ApplicationManager.getApplication().invokeLater(() -> {
+            if (request != REQUESTS.get()) {
+                return;
+            }
+            BeardedIconAtlas.setTint(tint);
+            for (Window window : Window.getWindows()) {
+                window.repaint();
+            }
+        });
+    }
+
+    /**
+     * Tints the atlases of {@code slug} at the bundled scales and at every
+     * scale in {@link #EXTRA_SCALES}, reusing what {@code base} already has.
+     */
+    @Nullable
+    private static BeardedIconAtlas.Tint compute(@NotNull String slug, @Nullable BeardedIconAtlas.Tint base) {
+        float[] hues;
+        BufferedImage[] images;
+        Map<Integer, BufferedImage> scaledImages = new HashMap<>();
+        if (base != null) {
+            hues = base.hues;
+            images = base.images;
+            scaledImages.putAll(base.scaledImages);
+        } else {
+            try (InputStream in = BeardedIconTinter.class.getResourceAsStream("/themes/" + slug + ".theme.json")) {
+                if (in == null) {
+                    return null;
+                }
+                hues = BeardedIconTint.paletteHues(
+                    JsonParser.parseString(new String(in.readAllBytes(), StandardCharsets.UTF_8)));
+            } catch (IOException | JsonParseException e) {
+                LOG.warn("Bearded Theme: cannot read the palette of " + slug, e);
+                return null;
+            }
+            images = new BufferedImage[BeardedIconAtlas.scaleCount()];
+            for (int i = 0; i < images.length; i++) {
+                BufferedImage atlas = BeardedIconAtlas.image(i);
+                images[i] = atlas != null ? BeardedIconTint.tint(atlas, BeardedIconAtlas.cellSize(i), hues) : null;
+            }
+        }
+        for (int percent : EXTRA_SCALES) {
+            if (!scaledImages.containsKey(percent)) {
+                scaledImages.put(percent, BeardedIconTint.tint(BeardedIconAtlas.rasterize(percent),
+                    BeardedIconAtlas.cellSizeAt(percent), hues));
+            }
+        }
+        return new BeardedIconAtlas.Tint(images, hues, Collections.unmodifiableMap(scaledImages));
+    }
+
+    @Nullable
+    private static String activeThemeSlug() {
+        UIThemeLookAndFeelInfo laf = LafManager.getInstance().getCurrentUIThemeLookAndFeel();
+        BeardedThemeCatalog.Theme theme = BeardedThemeCatalog.byThemeId(laf != null ? laf.getId() : null);
+        return theme != null ? theme.getSlug() : null;
+    }
+}
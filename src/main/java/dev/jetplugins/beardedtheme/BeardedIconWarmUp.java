@@ -0,0 +1,117 @@
+package dev.jetplugins.beardedtheme;
+
+import com.intellij.ide.ui.LafManager;
+import com.intellij.ide.ui.LafManagerListener;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.startup.ProjectActivity;
+import com.intellij.openapi.util.IconLoader;
+import com.intellij.ui.scale.JBUIScale;
+import com.intellij.ui.scale.ScaleContext;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import kotlin.Unit;
+import kotlin.coroutines.Continuation;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.beans.PropertyChangeListener;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Preloads and rasterizes the Bearded icon set off the EDT.
+ *
+ * {@link IconLoader} parses an SVG the first time the icon is painted, which
+ * otherwise happens inside the first tree paint after startup. This activity
+ * loads every icon the index can resolve to and renders it once at the
+ * current scale on a background pool. The set is warmed up again whenever
+ * the Look and Feel or the IDE scale changes, since both drop the rasters,
+ * and when icons are switched back on after starting disabled.
+ */
+public class BeardedIconWarmUp implements ProjectActivity, LafManagerListener, BeardedThemeSettingsListener {
+
+    private static final Logger LOG = Logger.getInstance(BeardedIconWarmUp.class);
+
+    private static final ExecutorService EXECUTOR = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+        "Bearded Icon Warm-up", Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+
+    private static final AtomicBoolean STARTED = new AtomicBoolean();
+
+    private static final PropertyChangeListener SCALE_LISTENER = event -> warmUp("scale change");
+
+    @Nullable
+    @Override
+    public Object execute(@NotNull Project project, @NotNull Continuation<? super Unit> continuation) {
+        if (STARTED.compareAndSet(false, true)) {
+            JBUIScale.addUserScaleChangeListener(SCALE_LISTENER);
+            warmUp("startup");
+        }
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public void lookAndFeelChanged(@NotNull LafManager source) {
+        if (STARTED.get()) {
+            warmUp("Look and Feel change");
+        }
+    }
+
+    @Override
+    public void settingsChanged(@NotNull BeardedThemeSettings.Snapshot oldSettings,
+                                @NotNull BeardedThemeSettings.Snapshot newSettings) {
+        if (STARTED.get() && !oldSettings.isIconsEnabled() && newSettings.isIconsEnabled()) {
+            warmUp("icons enabled");
+        }
+    }
+
+    /**
+     * Unregisters the scale listener so the plugin can be unloaded; the next
+     * project open starts the warm-up again.
+     */
+    static void stop() {
+        if (STARTED.compareAndSet(true, false)) {
+            JBUIScale.removeUserScaleChangeListener(SCALE_LISTENER);
+        }
+    }
+
+    static void warmUp(@NotNull String reason) {
+        if (!BeardedThemeSettings.snapshot().isIconsEnabled()) {
+            return;
+        }
+        Set<String> iconIds = BeardedIconIndex.current().iconIds();
+        AtomicInteger remaining = new AtomicInteger(iconIds.size());
+        AtomicInteger rasterized = new AtomicInteger();
+        long start = System.nanoTime();
+
+        for (String iconId : iconIds) {
+            EXECUTOR.execute(() -> {
+                try {
+                    if (rasterize(BeardedIcons.get(iconId))) {
+                        rasterized.incrementAndGet();
+                    }
+                } finally {
+                    if (remaining.decrementAndGet() == 0) {
+                        long millis = (System.nanoTime() - start) / 1_000_000;
+                        LOG.info("Bearded Theme: warmed up " + rasterized.get() + "/" + iconIds.size()
+                            + " icons in " + millis + " ms (" + reason + ")");
+                    }
+                }
+            });
+        }
+    }
+
+    private static boolean rasterize(@Nullable Icon icon) {
+        if (icon == null) {
+            return false;
+        }
+        try {
+            return IconLoader.toImage(icon, ScaleContext.create()) != null;
+        } catch (Exception e) {
+            LOG.debug("Bearded Theme: failed to rasterize icon", e);
+            return false;
+        }
+    }
+}
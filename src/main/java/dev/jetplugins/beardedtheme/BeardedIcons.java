@@ -0,0 +1,60 @@
+package dev.jetplugins.beardedtheme;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.IconLoader;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads the Bearded SVG icons by icon id. Icons present in the build-time
+ * atlas paint from {@link BeardedIconAtlas} at the scales it covers.
+ *
+ * An id whose SVG is missing or fails to load is remembered as failed, so
+ * it is reported once rather than loaded again on every paint.
+ */
+final class BeardedIcons {
+
+    private static final Logger LOG = Logger.getInstance(BeardedIcons.class);
+
+    private static final String ICON_PATH = "/icons/";
+
+    // Cached for ids that failed to load; never returned.
+    private static final Icon FAILED = new ImageIcon();
+
+    // Keyed by icon id: the built-in ids of BeardedIconIndex and the
+    // arbitrary ids of custom associations, compared by equals.
+    private static final Map<String, Icon> ICONS = new ConcurrentHashMap<>();
+
+    private BeardedIcons() {
+    }
+
+    static @Nullable Icon get(@Nullable String iconId) {
+        if (iconId == null) {
+            return null;
+        }
+        Icon icon = ICONS.computeIfAbsent(iconId, BeardedIcons::load);
+        return icon != FAILED ? icon : null;
+    }
+
+    static void clear() {
+        ICONS.clear();
+    }
+
+    private static @NotNull Icon load(@NotNull String iconId) {
+        String path = ICON_PATH + iconId + ".svg";
+        try {
+            if (BeardedIcons.class.getResource(path) != null) {
+                return BeardedIconAtlas.wrap(iconId, IconLoader.getIcon(path, BeardedIcons.class));
+            }
+            LOG.warn("Bearded Theme: no icon " + path);
+        } catch (Exception e) {
+            LOG.warn("Bearded Theme: cannot load icon " + path, e);
+        }
+        BeardedIconMetrics.loadFailure();
+        return FAILED;
+    }
+}
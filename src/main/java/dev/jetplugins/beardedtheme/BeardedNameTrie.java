@@ -0,0 +1,183 @@
+package dev.jetplugins.beardedtheme;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable, case-insensitive trie used to resolve file and folder names.
+ *
+ * Keys are folded to lower case once, when the trie is built, and probed
+ * characters are folded on the fly, so a lookup never allocates and reads
+ * each character of the name at most once. Nodes are flattened into arrays:
+ * the edges leaving node {@code n} occupy {@code [edgeStart[n], edgeStart[n + 1])}
+ * of {@code edgeChars}/{@code edgeTargets}, sorted by character.
+ */
+final class BeardedNameTrie {
+
+    private static final int ROOT = 0;
+
+    private final int[] edgeStart;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    private final String[] values;
+
+    private BeardedNameTrie(int[] edgeStart, char[] edgeChars, int[] edgeTargets, String[] values) {
+        this.edgeStart = edgeStart;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.values = values;
+    }
+
+    /**
+     * Returns the value registered for the whole of {@code name}, ignoring case.
+     */
+    @Nullable
+    String get(@NotNull CharSequence name) {
+        int node = ROOT;
+        for (int i = 0, length = name.length(); i < length; i++) {
+            node = step(node, fold(name.charAt(i)));
+            if (node < 0) {
+                return null;
+            }
+        }
+        return values[node];
+    }
+
+    /**
+     * Walks {@code name} from its last character backwards and returns the
+     * value of the deepest key that matched. Keys of a suffix trie are stored
+     * reversed (see {@link Builder#putReversed}), so the deepest match is the
+     * longest registered suffix of the name.
+     */
+    @Nullable
+    String matchSuffix(@NotNull CharSequence name) {
+        String match = null;
+        int node = ROOT;
+        for (int i = name.length() - 1; i >= 0; i--) {
+            node = step(node, fold(name.charAt(i)));
+            if (node < 0) {
+                break;
+            }
+            if (values[node] != null) {
+                match = values[node];
+            }
+        }
+        return match;
+    }
+
+    /**
+     * Adds every registered value to {@code target}.
+     */
+    void collectValues(@NotNull Collection<? super String> target) {
+        for (String value : values) {
+            if (value != null) {
+                target.add(value);
+            }
+        }
+    }
+
+    private int step(int node, char c) {
+        int lo = edgeStart[node];
+        int hi = edgeStart[node + 1] - 1;
+        if (hi - lo < 8) {
+            // Most nodes have a single edge; a short scan beats bisection.
+            for (int i = lo; i <= hi; i++) {
+                if (edgeChars[i] == c) {
+                    return edgeTargets[i];
+                }
+            }
+            return -1;
+        }
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char m = edgeChars[mid];
+            if (m < c) {
+                lo = mid + 1;
+            } else if (m > c) {
+                hi = mid - 1;
+            } else {
+                return edgeTargets[mid];
+            }
+        }
+        return -1;
+    }
+
+    static char fold(char c) {
+        if (c < 0x80) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(c);
+    }
+
+    static final class Builder {
+
+        private final Node root = new Node();
+
+        /**
+         * Registers {@code key}; a later registration of the same key wins.
+         */
+        @NotNull
+        Builder put(@NotNull String key, @NotNull String value) {
+            Node node = root;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(fold(key.charAt(i)), c -> new Node());
+            }
+            node.value = value;
+            return this;
+        }
+
+        /**
+         * Registers {@code key} for {@link BeardedNameTrie#matchSuffix} lookups.
+         */
+        @NotNull
+        Builder putReversed(@NotNull String key, @NotNull String value) {
+            return put(new StringBuilder(key).reverse().toString(), value);
+        }
+
+        @NotNull
+        BeardedNameTrie build() {
+            // Number nodes breadth-first so every node's edges are contiguous.
+            List<Node> order = new ArrayList<>();
+            ArrayDeque<Node> queue = new ArrayDeque<>();
+            queue.add(root);
+            while (!queue.isEmpty()) {
+                Node node = queue.poll();
+                node.id = order.size();
+                order.add(node);
+                queue.addAll(node.children.values());
+            }
+
+            int edgeCount = order.size() - 1;
+            int[] edgeStart = new int[order.size() + 1];
+            char[] edgeChars = new char[edgeCount];
+            int[] edgeTargets = new int[edgeCount];
+            String[] values = new String[order.size()];
+
+            int edge = 0;
+            for (Node node : order) {
+                edgeStart[node.id] = edge;
+                values[node.id] = node.value;
+                for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+                    edgeChars[edge] = child.getKey();
+                    edgeTargets[edge] = child.getValue().id;
+                    edge++;
+                }
+            }
+            edgeStart[order.size()] = edge;
+            return new BeardedNameTrie(edgeStart, edgeChars, edgeTargets, values);
+        }
+
+        private static final class Node {
+            final TreeMap<Character, Node> children = new TreeMap<>();
+            String value;
+            int id;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package dev.jetplugins.beardedtheme;
+
+import com.intellij.ide.projectView.ProjectView;
+import com.intellij.ide.projectView.impl.AbstractProjectViewPane;
+import com.intellij.ide.util.treeView.AbstractTreeNode;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.UserDataHolderEx;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.intellij.util.ui.tree.TreeUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import javax.swing.event.ChangeListener;
+import javax.swing.tree.TreePath;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Re-renders project view nodes after a Bearded setting that affects icons
+ * changes, without rebuilding the tree.
+ *
+ * Only rows inside the visible rectangle are updated. The other rows the
+ * tree had at the time are picked up as they scroll into view, through a
+ * viewport listener that is removed once all of them have been updated, on
+ * the next refresh, or when the project is closed. Each node is re-rendered
+ * at most once per settings change; nodes created afterwards already
+ * render with the new settings and are left alone. {@link BeardedContentSniffer}
+ * uses the same refresh once it has found icons for files it has read.
+ *
+ * The platform may create more than one listener instance for a project;
+ * they all delegate to the single instance kept in the project's user data,
+ * so each tree is watched once.
+ */
+public final class BeardedProjectViewRefresher implements BeardedThemeSettingsListener {
+
+    private static final Key<BeardedProjectViewRefresher> INSTANCE = Key.create("BeardedProjectViewRefresher");
+
+    private final Project project;
+
+    // EDT only: nodes of the last refresh not updated yet, and the viewport
+    // listener waiting for them to scroll into view.
+    private final Set<AbstractTreeNode<?>> pending = Collections.newSetFromMap(new WeakHashMap<>());
+    private Disposable watch;
+
+    public BeardedProjectViewRefresher(@NotNull Project project) {
+        this.project = project;
+    }
+
+    @NotNull
+    static BeardedProjectViewRefresher getInstance(@NotNull Project project) {
+        BeardedProjectViewRefresher instance = project.getUserData(INSTANCE);
+        return instance != null ? instance
+            : ((UserDataHolderEx) project).putUserDataIfAbsent(INSTANCE, new BeardedProjectViewRefresher(project));
+    }
+
+    /**
+     * Removes the instance stored in {@code project}'s user data, along with
+     * its viewport listener. Must be called on the EDT.
+     */
+    static void forget(@NotNull Project project) {
+        BeardedProjectViewRefresher instance = project.getUserData(INSTANCE);
+        if (instance != null) {
+            instance.stopWatching();
+        }
+        project.putUserData(INSTANCE, null);
+    }
+
+    @Override
+    public void settingsChanged(@NotNull BeardedThemeSettings.Snapshot oldSettings,
+                                @NotNull BeardedThemeSettings.Snapshot newSettings) {
+        if (oldSettings.isIconsEnabled() != newSettings.isIconsEnabled()
+            || oldSettings.isContentSniffingEnabled() != newSettings.isContentSniffingEnabled()) {
+            getInstance(project).refresh();
+        }
+    }
+
+    @Override
+    public void iconIndexChanged() {
+        getInstance(project).refresh();
+    }
+
+    private void refresh() {
+        ApplicationManager.getApplication().invokeLater(this::refreshNow, project.getDisposed());
+    }
+
+    /**
+     * Re-renders the visible rows now, and the tree's other rows once they
+     * scroll into view. Must be called on the EDT.
+     */
+    void refreshNow() {
+        stopWatching();
+        AbstractProjectViewPane pane = ProjectView.getInstance(project).getCurrentProjectViewPane();
+        JTree tree = pane != null ? pane.getTree() : null;
+        if (tree == null) {
+            return;
+        }
+        for (int row = 0; row < tree.getRowCount(); row++) {
+            AbstractTreeNode<?> node = nodeAt(tree, row);
+            if (node != null) {
+                pending.add(node);
+            }
+        }
+        refreshVisibleRows(tree);
+        if (!pending.isEmpty()) {
+            watch(tree);
+        }
+    }
+
+    private void watch(@NotNull JTree tree) {
+        if (!(tree.getParent() instanceof JViewport)) {
+            pending.clear();
+            return;
+        }
+        JViewport viewport = (JViewport) tree.getParent();
+        ChangeListener listener = e -> refreshVisibleRows(tree);
+        Disposable disposable = Disposer.newDisposable("Bearded project view refresh");
+        Disposer.register(disposable, () -> viewport.removeChangeListener(listener));
+        if (!Disposer.tryRegister(project, disposable)) {
+            pending.clear();
+            return;
+        }
+        viewport.addChangeListener(listener);
+        watch = disposable;
+    }
+
+    private void stopWatching() {
+        pending.clear();
+        if (watch != null) {
+            Disposer.dispose(watch);
+            watch = null;
+        }
+    }
+
+    private void refreshVisibleRows(@NotNull JTree tree) {
+        if (!tree.isShowing() || tree.getRowCount() == 0) {
+            return;
+        }
+        Rectangle visible = tree.getVisibleRect();
+        int first = tree.getClosestRowForLocation(visible.x, visible.y);
+        int last = tree.getClosestRowForLocation(visible.x, visible.y + visible.height);
+
+        List<AbstractTreeNode<?>> stale = new ArrayList<>();
+        for (int row = first; row >= 0 && row <= last; row++) {
+            AbstractTreeNode<?> node = nodeAt(tree, row);
+            if (node != null && pending.remove(node)) {
+                stale.add(node);
+            }
+        }
+        if (pending.isEmpty() && watch != null) {
+            stopWatching();
+        }
+        if (stale.isEmpty()) {
+            return;
+        }
+
+        ReadAction.nonBlocking(() -> {
+                for (AbstractTreeNode<?> node : stale) {
+                    node.update();
+                }
+            })
+            .expireWith(project)
+            .finishOnUiThread(ModalityState.any(), ignored -> tree.repaint(visible))
+            .submit(AppExecutorUtil.getAppExecutorService());
+    }
+
+    @Nullable
+    private static AbstractTreeNode<?> nodeAt(@NotNull JTree tree, int row) {
+        TreePath path = tree.getPathForRow(row);
+        Object node = path != null ? TreeUtil.getUserObject(path.getLastPathComponent()) : null;
+        return node instanceof AbstractTreeNode ? (AbstractTreeNode<?>) node : null;
+    }
+}
@@ -0,0 +1,184 @@
+package dev.jetplugins.beardedtheme;
+
+import com.intellij.ide.actions.QuickChangeLookAndFeel;
+import com.intellij.ide.ui.LafManager;
+import com.intellij.ide.ui.laf.UIThemeLookAndFeelInfo;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.ui.popup.JBPopupFactory;
+import com.intellij.openapi.ui.popup.ListPopup;
+import com.intellij.openapi.ui.popup.ListSeparator;
+import com.intellij.openapi.ui.popup.PopupStep;
+import com.intellij.openapi.ui.popup.util.BaseListPopupStep;
+import com.intellij.ui.JBColor;
+import com.intellij.ui.scale.JBUIScale;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Shows all Bearded themes in a popup, grouped by family, each with a swatch
+ * of its background, accent and syntax colors, and switches to the chosen
+ * one. Everything shown comes from {@link BeardedThemeCatalog}, so opening
+ * the popup reads no theme or scheme file.
+ */
+public class BeardedQuickSwitchAction extends AnAction implements DumbAware {
+
+    private static final String NAME_PREFIX = "Bearded Theme ";
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        List<BeardedThemeCatalog.Theme> themes = BeardedThemeCatalog.themesByFamily();
+        if (themes.isEmpty()) {
+            return;
+        }
+        ListPopup popup = JBPopupFactory.getInstance().createListPopup(new ThemeStep(themes));
+        if (e.getProject() != null) {
+            popup.showCenteredInCurrentWindow(e.getProject());
+        } else {
+            popup.showInFocusCenter();
+        }
+    }
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    /**
+     * Switches to {@code theme} the way the IDE's own theme switcher does.
+     * Must be called on the EDT.
+     */
+    static void apply(@NotNull BeardedThemeCatalog.Theme theme) {
+        LafManager lafManager = LafManager.getInstance();
+        UIThemeLookAndFeelInfo laf = lafManager.findLaf(theme.getThemeId());
+        if (laf != null && laf != lafManager.getCurrentUIThemeLookAndFeel()) {
+            QuickChangeLookAndFeel.switchLafAndUpdateUI(lafManager, laf, true);
+        }
+    }
+
+    private static final class ThemeStep extends BaseListPopupStep<BeardedThemeCatalog.Theme> {
+
+        // First theme of each family, which gets the family separator. The
+        // themes come grouped by family, so each family has one.
+        private final Set<BeardedThemeCatalog.Theme> familyStarts = new HashSet<>();
+        private final int current;
+
+        ThemeStep(@NotNull List<BeardedThemeCatalog.Theme> themes) {
+            super("Bearded Themes", themes, swatches(themes));
+            String family = null;
+            for (BeardedThemeCatalog.Theme theme : themes) {
+                if (!theme.getFamily().equals(family)) {
+                    familyStarts.add(theme);
+                    family = theme.getFamily();
+                }
+            }
+            UIThemeLookAndFeelInfo laf = LafManager.getInstance().getCurrentUIThemeLookAndFeel();
+            current = themes.indexOf(BeardedThemeCatalog.byThemeId(laf != null ? laf.getId() : null));
+        }
+
+        @NotNull
+        private static List<Icon> swatches(@NotNull List<BeardedThemeCatalog.Theme> themes) {
+            List<Icon> icons = new ArrayList<>(themes.size());
+            for (BeardedThemeCatalog.Theme theme : themes) {
+                icons.add(new SwatchIcon(theme));
+            }
+            return icons;
+        }
+
+        @Override
+        public @NotNull String getTextFor(BeardedThemeCatalog.Theme theme) {
+            String name = theme.getName();
+            return name.startsWith(NAME_PREFIX) ? name.substring(NAME_PREFIX.length()) : name;
+        }
+
+        @Override
+        public @Nullable ListSeparator getSeparatorAbove(BeardedThemeCatalog.Theme theme) {
+            return familyStarts.contains(theme) ? new ListSeparator(theme.getFamily()) : null;
+        }
+
+        @Override
+        public int getDefaultOptionIndex() {
+            return Math.max(current, 0);
+        }
+
+        @Override
+        public boolean isSpeedSearchEnabled() {
+            return true;
+        }
+
+        @Override
+        public @Nullable PopupStep<?> onChosen(BeardedThemeCatalog.Theme theme, boolean finalChoice) {
+            return doFinalStep(() -> apply(theme));
+        }
+    }
+
+    /**
+     * The theme's background with bars of its accent and syntax colors.
+     */
+    private static final class SwatchIcon implements Icon {
+
+        private static final int[] BARS = {
+            BeardedThemeCatalog.SWATCH_ACCENT,
+            BeardedThemeCatalog.SWATCH_KEYWORD,
+            BeardedThemeCatalog.SWATCH_STRING,
+            BeardedThemeCatalog.SWATCH_CLASS_NAME,
+        };
+        private static final int INSET = 3;
+        private static final int BAR_WIDTH = 4;
+        private static final int BAR_GAP = 2;
+
+        private final BeardedThemeCatalog.Theme theme;
+
+        SwatchIcon(@NotNull BeardedThemeCatalog.Theme theme) {
+            this.theme = theme;
+        }
+
+        @Override
+        public void paintIcon(Component c, Graphics g, int x, int y) {
+            Graphics2D g2 = (Graphics2D) g.create();
+            try {
+                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                int width = getIconWidth();
+                int height = getIconHeight();
+                int arc = JBUIScale.scale(4);
+                Color background = theme.getSwatch(BeardedThemeCatalog.SWATCH_BACKGROUND);
+                g2.setColor(background != null ? background : JBColor.background());
+                g2.fillRoundRect(x, y, width, height, arc, arc);
+
+                int inset = JBUIScale.scale(INSET);
+                int barWidth = JBUIScale.scale(BAR_WIDTH);
+                int step = barWidth + JBUIScale.scale(BAR_GAP);
+                for (int i = 0; i < BARS.length; i++) {
+                    Color color = theme.getSwatch(BARS[i]);
+                    if (color != null) {
+                        g2.setColor(color);
+                        g2.fillRect(x + inset + i * step, y + inset, barWidth, height - 2 * inset);
+                    }
+                }
+                g2.setColor(JBColor.border());
+                g2.drawRoundRect(x, y, width - 1, height - 1, arc, arc);
+            } finally {
+                g2.dispose();
+            }
+        }
+
+        @Override
+        public int getIconWidth() {
+            return JBUIScale.scale(2 * INSET + BARS.length * BAR_WIDTH + (BARS.length - 1) * BAR_GAP);
+        }
+
+        @Override
+        public int getIconHeight() {
+            return JBUIScale.scale(14);
+        }
+    }
+}
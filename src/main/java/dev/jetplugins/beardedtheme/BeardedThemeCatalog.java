@@ -0,0 +1,184 @@
+package dev.jetplugins.beardedtheme;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lightweight index of the bundled Bearded themes, read from the binary
+ * {@code /themes/catalog.bin} written by the {@code generateThemeCatalog}
+ * build task.
+ *
+ * The plugin's own features (icon tinting, theme switching) look themes up
+ * here instead of asking the IDE for its installed themes or opening theme
+ * files, so only the active theme's JSON is ever read by the plugin. Each
+ * entry carries a few representative colors, which is all the quick switcher
+ * needs to draw its swatches. The index is loaded once, on first use.
+ */
+final class BeardedThemeCatalog {
+
+    static final String THEME_ID_PREFIX = "dev.jetplugins.beardedtheme.";
+
+    private static final int MAGIC = 0x42544331;
+    private static final int FLAG_DARK = 1;
+    private static final int FLAG_HIGH_CONTRAST = 2;
+
+    // Swatch order, as written by generateThemeCatalog.
+    static final int SWATCH_BACKGROUND = 0;
+    static final int SWATCH_FOREGROUND = 1;
+    static final int SWATCH_ACCENT = 2;
+    static final int SWATCH_KEYWORD = 3;
+    static final int SWATCH_STRING = 4;
+    static final int SWATCH_CLASS_NAME = 5;
+
+    static final class Theme {
+        private final String slug;
+        private final String name;
+        private final String family;
+        private final boolean dark;
+        private final boolean highContrast;
+        private final int[] swatches;
+
+        Theme(@NotNull String slug, @NotNull String name, @NotNull String family,
+              boolean dark, boolean highContrast, @NotNull int[] swatches) {
+            this.slug = slug;
+            this.name = name;
+            this.family = family;
+            this.dark = dark;
+            this.highContrast = highContrast;
+            this.swatches = swatches;
+        }
+
+        @NotNull
+        String getSlug() {
+            return slug;
+        }
+
+        @NotNull
+        String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the theme family, e.g. "Arc" or "Black & Gems".
+         */
+        @NotNull
+        String getFamily() {
+            return family;
+        }
+
+        boolean isDark() {
+            return dark;
+        }
+
+        boolean isHighContrast() {
+            return highContrast;
+        }
+
+        /**
+         * Returns the swatch color at {@code index}, one of the
+         * {@code SWATCH_*} constants, or {@code null} if the catalog has none.
+         */
+        @Nullable
+        Color getSwatch(int index) {
+            return index < swatches.length ? new Color(swatches[index]) : null;
+        }
+
+        /**
+         * Returns the id of the {@code themeProvider} that registers this theme.
+         */
+        @NotNull
+        String getThemeId() {
+            return THEME_ID_PREFIX + slug;
+        }
+    }
+
+    private static final class Holder {
+        static final Map<String, Theme> THEMES = load();
+    }
+
+    private BeardedThemeCatalog() {
+    }
+
+    /**
+     * Returns all bundled themes in catalog order.
+     */
+    @NotNull
+    static List<Theme> themes() {
+        return new ArrayList<>(Holder.THEMES.values());
+    }
+
+    /**
+     * Returns all bundled themes with each family's themes next to each
+     * other: families in the order they first appear in the catalog, themes
+     * in catalog order within their family.
+     */
+    @NotNull
+    static List<Theme> themesByFamily() {
+        Map<String, List<Theme>> families = new LinkedHashMap<>();
+        for (Theme theme : Holder.THEMES.values()) {
+            families.computeIfAbsent(theme.getFamily(), family -> new ArrayList<>()).add(theme);
+        }
+        List<Theme> themes = new ArrayList<>(Holder.THEMES.size());
+        families.values().forEach(themes::addAll);
+        return themes;
+    }
+
+    @Nullable
+    static Theme bySlug(@NotNull String slug) {
+        return Holder.THEMES.get(slug);
+    }
+
+    /**
+     * Returns the Bearded theme registered under {@code themeId}, or
+     * {@code null} if the id belongs to another theme.
+     */
+    @Nullable
+    static Theme byThemeId(@Nullable String themeId) {
+        if (themeId == null || !themeId.startsWith(THEME_ID_PREFIX)) {
+            return null;
+        }
+        return bySlug(themeId.substring(THEME_ID_PREFIX.length()));
+    }
+
+    @NotNull
+    private static Map<String, Theme> load() {
+        Map<String, Theme> themes = new LinkedHashMap<>();
+        try (InputStream resource = BeardedThemeCatalog.class.getResourceAsStream("/themes/catalog.bin")) {
+            if (resource == null) {
+                return Collections.emptyMap();
+            }
+            DataInputStream in = new DataInputStream(new BufferedInputStream(resource));
+            if (in.readInt() != MAGIC) {
+                return Collections.emptyMap();
+            }
+            int count = in.readUnsignedShort();
+            for (int i = 0; i < count; i++) {
+                String slug = in.readUTF();
+                String name = in.readUTF();
+                String family = in.readUTF();
+                int flags = in.readUnsignedByte();
+                int[] swatches = new int[in.readUnsignedByte()];
+                for (int j = 0; j < swatches.length; j++) {
+                    swatches[j] = in.readInt();
+                }
+                themes.put(slug, new Theme(slug, name, family,
+                    (flags & FLAG_DARK) != 0, (flags & FLAG_HIGH_CONTRAST) != 0, swatches));
+            }
+        } catch (IOException e) {
+            // Leave the catalog empty; features relying on it simply find no theme.
+            return Collections.emptyMap();
+        }
+        return Collections.unmodifiableMap(themes);
+    }
+}
@@ -1,16 +1,34 @@
 package dev.jetplugins.beardedtheme;
 
 import com.intellij.openapi.options.Configurable;
+import com.intellij.openapi.options.ConfigurationException;
+import com.intellij.openapi.ui.ComboBox;
+import com.intellij.ui.SimpleListCellRenderer;
 import com.intellij.ui.components.JBCheckBox;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBTextField;
 import com.intellij.util.ui.FormBuilder;
 import org.jetbrains.annotations.Nls;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
+import java.awt.event.ItemEvent;
+import java.util.Objects;
 
 public final class BeardedThemeConfigurable implements Configurable {
 
     private JBCheckBox iconsCheckBox;
+    private JBCheckBox sniffingCheckBox;
+    private JBCheckBox tintCheckBox;
+    private ComboBox<BeardedThemeSettings.AutoSwitch> autoSwitchCombo;
+    private ComboBox<BeardedThemeCatalog.Theme> lightThemeCombo;
+    private ComboBox<BeardedThemeCatalog.Theme> darkThemeCombo;
+    private JBTextField dayStartField;
+    private JBTextField nightStartField;
+    private boolean resettingThemes;
+    private BeardedThemePreviewPanel previewPanel;
+    private BeardedIconAssociationsPanel associationsPanel;
 
     @Nls(capitalization = Nls.Capitalization.Title)
     @Override
@@ -21,29 +39,158 @@ public final class BeardedThemeConfigurable implements Configurable {
     @Override
     public @Nullable JComponent createComponent() {
         iconsCheckBox = new JBCheckBox("Enable Bearded file icons");
+        sniffingCheckBox = new JBCheckBox("Detect icons of files without an extension from their content");
+        tintCheckBox = new JBCheckBox("Tint file icons with the active Bearded theme's colors");
+        previewPanel = new BeardedThemePreviewPanel();
+        createAutoSwitchComponents();
+        associationsPanel = new BeardedIconAssociationsPanel();
         return FormBuilder.createFormBuilder()
                 .addComponent(iconsCheckBox)
-                .addComponentFillVertically(new JPanel(), 0)
+                .addComponent(sniffingCheckBox)
+                .addComponent(tintCheckBox)
+                .addVerticalGap(8)
+                .addLabeledComponent("Switch between light and dark themes:", autoSwitchCombo)
+                .addLabeledComponent("Light theme:", lightThemeCombo)
+                .addLabeledComponent("Dark theme:", darkThemeCombo)
+                .addLabeledComponent("Preview:", previewPanel.getComponent())
+                .addLabeledComponent("Day starts at (HH:mm):", dayStartField)
+                .addLabeledComponent("Night starts at (HH:mm):", nightStartField)
+                .addVerticalGap(8)
+                .addComponent(new JBLabel("Custom icon associations (override the built-in ones):"))
+                .addComponentFillVertically(associationsPanel.getComponent(), 0)
                 .getPanel();
     }
 
+    private void createAutoSwitchComponents() {
+        autoSwitchCombo = new ComboBox<>(BeardedThemeSettings.AutoSwitch.values());
+        autoSwitchCombo.setRenderer(SimpleListCellRenderer.create("", mode -> {
+            switch (mode) {
+                case FOLLOW_SYSTEM:
+                    return "Follow the OS appearance";
+                case SCHEDULE:
+                    return "On a schedule";
+                default:
+                    return "Off";
+            }
+        }));
+        lightThemeCombo = new ComboBox<>();
+        darkThemeCombo = new ComboBox<>();
+        for (BeardedThemeCatalog.Theme theme : BeardedThemeCatalog.themes()) {
+            (theme.isDark() ? darkThemeCombo : lightThemeCombo).addItem(theme);
+        }
+        lightThemeCombo.setRenderer(SimpleListCellRenderer.create("", BeardedThemeCatalog.Theme::getName));
+        darkThemeCombo.setRenderer(SimpleListCellRenderer.create("", BeardedThemeCatalog.Theme::getName));
+        // Picking one half of a known pair suggests the other half.
+        lightThemeCombo.addItemListener(e -> selectCounterpart(e, darkThemeCombo));
+        darkThemeCombo.addItemListener(e -> selectCounterpart(e, lightThemeCombo));
+        lightThemeCombo.addItemListener(e -> updatePreview());
+        darkThemeCombo.addItemListener(e -> updatePreview());
+        dayStartField = new JBTextField(5);
+        nightStartField = new JBTextField(5);
+        autoSwitchCombo.addItemListener(e -> updateAutoSwitchEnabled());
+    }
+
+    private void selectCounterpart(@NotNull ItemEvent e, @NotNull ComboBox<BeardedThemeCatalog.Theme> other) {
+        if (resettingThemes || e.getStateChange() != ItemEvent.SELECTED) {
+            return;
+        }
+        String counterpart = BeardedAutoSwitcher.counterpart(((BeardedThemeCatalog.Theme) e.getItem()).getSlug());
+        BeardedThemeCatalog.Theme theme = counterpart != null ? BeardedThemeCatalog.bySlug(counterpart) : null;
+        if (theme != null) {
+            other.setSelectedItem(theme);
+        }
+    }
+
+    private void updatePreview() {
+        previewPanel.show(selectedSlug(lightThemeCombo), selectedSlug(darkThemeCombo));
+    }
+
+    private void updateAutoSwitchEnabled() {
+        BeardedThemeSettings.AutoSwitch mode = (BeardedThemeSettings.AutoSwitch) autoSwitchCombo.getSelectedItem();
+        boolean enabled = mode != null && mode != BeardedThemeSettings.AutoSwitch.OFF;
+        boolean scheduled = mode == BeardedThemeSettings.AutoSwitch.SCHEDULE;
+        lightThemeCombo.setEnabled(enabled);
+        darkThemeCombo.setEnabled(enabled);
+        dayStartField.setEnabled(scheduled);
+        nightStartField.setEnabled(scheduled);
+    }
+
+    @Nullable
+    private static String selectedSlug(@NotNull ComboBox<BeardedThemeCatalog.Theme> combo) {
+        BeardedThemeCatalog.Theme theme = (BeardedThemeCatalog.Theme) combo.getSelectedItem();
+        return theme != null ? theme.getSlug() : null;
+    }
+
     @Override
     public boolean isModified() {
-        return iconsCheckBox.isSelected() != BeardedThemeSettings.getInstance().isIconsEnabled();
+        BeardedThemeSettings settings = BeardedThemeSettings.getInstance();
+        BeardedThemeSettings.Snapshot snapshot = BeardedThemeSettings.snapshot();
+        return iconsCheckBox.isSelected() != settings.isIconsEnabled()
+                || sniffingCheckBox.isSelected() != settings.isContentSniffingEnabled()
+                || tintCheckBox.isSelected() != settings.isIconTintEnabled()
+                || autoSwitchCombo.getSelectedItem() != snapshot.getAutoSwitch()
+                || !Objects.equals(selectedSlug(lightThemeCombo), snapshot.getLightTheme())
+                || !Objects.equals(selectedSlug(darkThemeCombo), snapshot.getDarkTheme())
+                || BeardedAutoSwitcher.parseTime(dayStartField.getText()) != snapshot.getDayStart()
+                || BeardedAutoSwitcher.parseTime(nightStartField.getText()) != snapshot.getNightStart()
+                || associationsPanel.isModified(snapshot);
     }
 
     @Override
-    public void apply() {
-        BeardedThemeSettings.getInstance().setIconsEnabled(iconsCheckBox.isSelected());
+    public void apply() throws ConfigurationException {
+        int dayStart = BeardedAutoSwitcher.parseTime(dayStartField.getText());
+        int nightStart = BeardedAutoSwitcher.parseTime(nightStartField.getText());
+        if (dayStart < 0 || nightStart < 0) {
+            throw new ConfigurationException("Day and night start times must be in HH:mm format.");
+        }
+        BeardedThemeSettings settings = BeardedThemeSettings.getInstance();
+        // Validates the patterns first, so an invalid row leaves everything unsaved.
+        associationsPanel.apply(settings);
+        settings.setIconsEnabled(iconsCheckBox.isSelected());
+        settings.setContentSniffingEnabled(sniffingCheckBox.isSelected());
+        settings.setIconTintEnabled(tintCheckBox.isSelected());
+        settings.setAutoSwitch((BeardedThemeSettings.AutoSwitch) Objects.requireNonNull(autoSwitchCombo.getSelectedItem()),
+                selectedSlug(lightThemeCombo), selectedSlug(darkThemeCombo), dayStart, nightStart);
+    }
+
+    @Nullable
+    private static BeardedThemeCatalog.Theme themeOrNull(@Nullable String slug) {
+        return slug != null ? BeardedThemeCatalog.bySlug(slug) : null;
     }
 
     @Override
     public void reset() {
         iconsCheckBox.setSelected(BeardedThemeSettings.getInstance().isIconsEnabled());
+        sniffingCheckBox.setSelected(BeardedThemeSettings.getInstance().isContentSniffingEnabled());
+        tintCheckBox.setSelected(BeardedThemeSettings.getInstance().isIconTintEnabled());
+        BeardedThemeSettings.Snapshot snapshot = BeardedThemeSettings.snapshot();
+        autoSwitchCombo.setSelectedItem(snapshot.getAutoSwitch());
+        // Restore both sides as saved, without the pair suggestion.
+        resettingThemes = true;
+        try {
+            lightThemeCombo.setSelectedItem(themeOrNull(snapshot.getLightTheme()));
+            darkThemeCombo.setSelectedItem(themeOrNull(snapshot.getDarkTheme()));
+        } finally {
+            resettingThemes = false;
+        }
+        updatePreview();
+        dayStartField.setText(BeardedAutoSwitcher.formatTime(snapshot.getDayStart()));
+        nightStartField.setText(BeardedAutoSwitcher.formatTime(snapshot.getNightStart()));
+        updateAutoSwitchEnabled();
+        associationsPanel.reset(snapshot);
     }
 
     @Override
     public void disposeUIResources() {
         iconsCheckBox = null;
+        sniffingCheckBox = null;
+        tintCheckBox = null;
+        autoSwitchCombo = null;
+        lightThemeCombo = null;
+        darkThemeCombo = null;
+        dayStartField = null;
+        nightStartField = null;
+        previewPanel = null;
+        associationsPanel = null;
     }
 }
@@ -0,0 +1,157 @@
+package dev.jetplugins.beardedtheme;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The colors of a Bearded theme file, read without installing it: its
+ * {@code ui} and {@code icons} sections flattened to dotted keys (the
+ * {@code *} defaults become {@code *.background} and so on), its dark flag
+ * and its editor scheme name.
+ */
+final class BeardedThemeData {
+
+    private final String slug;
+    private final String name;
+    private final boolean dark;
+    // String values only; numbers, booleans and arrays are no colors.
+    private final Map<String, String> ui;
+    private final Map<String, String> icons;
+
+    private BeardedThemeData(@NotNull String slug, @NotNull String name, boolean dark,
+                             @NotNull Map<String, String> ui, @NotNull Map<String, String> icons) {
+        this.slug = slug;
+        this.name = name;
+        this.dark = dark;
+        this.ui = ui;
+        this.icons = icons;
+    }
+
+    /**
+     * Reads and parses {@code /themes/<slug>.theme.json}, or returns
+     * {@code null} if the file is missing or malformed.
+     */
+    @Nullable
+    static BeardedThemeData load(@NotNull String slug) {
+        try (InputStream in = BeardedThemeData.class.getResourceAsStream("/themes/" + slug + ".theme.json")) {
+            if (in == null) {
+                return null;
+            }
+            return parse(slug, JsonParser.parseString(new String(in.readAllBytes(), StandardCharsets.UTF_8)));
+        } catch (IOException | JsonParseException e) {
+            return null;
+        }
+    }
+
+    @NotNull
+    static BeardedThemeData parse(@NotNull String slug, @NotNull JsonElement themeJson) {
+        Map<String, String> ui = new LinkedHashMap<>();
+        flatten("", member(themeJson, "ui"), ui);
+        Map<String, String> icons = new LinkedHashMap<>();
+        flatten("", member(themeJson, "icons"), icons);
+        String name = string(member(themeJson, "name"));
+        JsonElement dark = member(themeJson, "dark");
+        return new BeardedThemeData(slug, name != null ? name : slug,
+            dark != null && dark.isJsonPrimitive() && dark.getAsJsonPrimitive().isBoolean() && dark.getAsBoolean(),
+            Collections.unmodifiableMap(ui), Collections.unmodifiableMap(icons));
+    }
+
+    @NotNull
+    String getSlug() {
+        return slug;
+    }
+
+    @NotNull
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the name of the theme's editor scheme, which the generator
+     * gives the theme's own name.
+     */
+    @NotNull
+    String getSchemeName() {
+        return name;
+    }
+
+    boolean isDark() {
+        return dark;
+    }
+
+    /**
+     * Returns the color under the flattened {@code ui} key, or {@code null}
+     * if there is none or the value is not a color.
+     */
+    @Nullable
+    Color uiColor(@NotNull String key) {
+        return parseColor(ui.get(key));
+    }
+
+    /**
+     * Returns the color under the flattened {@code icons} key, such as
+     * {@code ColorPalette.Actions.Blue}, or {@code null}.
+     */
+    @Nullable
+    Color iconColor(@NotNull String key) {
+        return parseColor(icons.get(key));
+    }
+
+    /**
+     * Parses {@code #RRGGBB} and {@code #RRGGBBAA} values; anything else is
+     * not a color.
+     */
+    @Nullable
+    static Color parseColor(@Nullable String s) {
+        if (s == null || !s.startsWith("#") || (s.length() != 7 && s.length() != 9)) {
+            return null;
+        }
+        try {
+            long rgba = Long.parseLong(s.substring(1), 16);
+            if (s.length() == 7) {
+                return new Color((int) rgba);
+            }
+            return new Color((int) (rgba >>> 8) & 0xFFFFFF | (int) (rgba & 0xFF) << 24, true);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void flatten(@NotNull String prefix, @Nullable JsonElement node, @NotNull Map<String, String> out) {
+        if (node == null || !node.isJsonObject()) {
+            return;
+        }
+        for (Map.Entry<String, JsonElement> entry : node.getAsJsonObject().entrySet()) {
+            String key = prefix + entry.getKey();
+            if (entry.getValue().isJsonObject()) {
+                flatten(key + ".", entry.getValue(), out);
+            } else {
+                String value = string(entry.getValue());
+                if (value != null) {
+                    out.put(key, value);
+                }
+            }
+        }
+    }
+
+    @Nullable
+    private static JsonElement member(@NotNull JsonElement json, @NotNull String key) {
+        return json.isJsonObject() ? json.getAsJsonObject().get(key) : null;
+    }
+
+    @Nullable
+    private static String string(@Nullable JsonElement json) {
+        return json != null && json.isJsonPrimitive() && json.getAsJsonPrimitive().isString() ? json.getAsString() : null;
+    }
+}
@@ -0,0 +1,361 @@
+package dev.jetplugins.beardedtheme;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Renders a headless preview of a Bearded theme: a mock IDE window with a
+ * project tree, an editor tab with highlighted Java code, a status bar and
+ * the theme's icon palette, drawn from the parsed theme and editor scheme
+ * alone.
+ *
+ * Fonts are shared constants, and the code sample is laid out once: where
+ * each fragment starts does not depend on the theme, so rendering a
+ * preview only fills shapes and draws strings. The settings page shows
+ * these previews for the selected light and dark themes, see
+ * {@link BeardedThemePreviewPanel}.
+ */
+final class BeardedThemePreview {
+
+    static final int WIDTH = 800;
+    static final int HEIGHT = 520;
+
+    private static final Font TITLE_FONT = new Font("SansSerif", Font.BOLD, 13);
+    private static final Font TREE_FONT = new Font("SansSerif", Font.PLAIN, 12);
+    private static final Font LABEL_FONT = new Font("SansSerif", Font.PLAIN, 11);
+    private static final Font PALETTE_FONT = new Font("SansSerif", Font.BOLD, 9);
+    private static final Font GUTTER_FONT = new Font("Monospaced", Font.PLAIN, 11);
+    // Indexed by font type: plain, bold, italic.
+    private static final Font[] CODE_FONTS = {
+        new Font("Monospaced", Font.PLAIN, 12),
+        new Font("Monospaced", Font.BOLD, 12),
+        new Font("Monospaced", Font.ITALIC, 12),
+    };
+
+    private static final String[] TREE_ITEMS = {
+        "src", "  main", "    java", "      App.java", "    resources", "      themes/", "  test", "    AppTest.java",
+        "build.gradle", "README.md"
+    };
+    private static final int SELECTED_TREE_ITEM = 3;
+
+    // Icon palette keys with the colors shown when a theme does not set them.
+    private static final String[] PALETTE_KEYS = {
+        "Actions.Blue", "Actions.Green", "Actions.Yellow", "Actions.Red", "Objects.Purple", "Objects.Pink"
+    };
+    private static final Color[] PALETTE_FALLBACKS = {
+        new Color(0x4285f4), new Color(0x34a853), new Color(0xfbbc04), new Color(0xea4335), new Color(0x9c27b0),
+        new Color(0xe91e63)
+    };
+
+    private static final String KEYWORD = "DEFAULT_KEYWORD";
+    private static final String STRING = "DEFAULT_STRING";
+    private static final String COMMENT = "DEFAULT_BLOCK_COMMENT";
+    private static final String FUNCTION = "DEFAULT_FUNCTION_CALL";
+    private static final String CLASS = "DEFAULT_CLASS_NAME";
+    private static final String VARIABLE = "DEFAULT_LOCAL_VARIABLE";
+    private static final String PARAMETER = "DEFAULT_PARAMETER";
+    private static final String CONSTANT = "DEFAULT_CONSTANT";
+    private static final String ANNOTATION = "DEFAULT_METADATA";
+    private static final String FIELD = "DEFAULT_INSTANCE_FIELD";
+    private static final String TYPE = "TYPE_PARAMETER_NAME_ATTRIBUTES";
+
+    private static final int CODE_X = 250;
+    private static final int CODE_Y = 76;
+    private static final int LINE_HEIGHT = 17;
+    private static final int GUTTER_LINES = 18;
+
+    // One entry per line of the code sample; null for a blank line.
+    private static final Line[] CODE = {
+        line(0, kw("package "), text("com.example.app;")),
+        null,
+        line(0, kw("import "), code(CLASS, "java.util.List"), text(";")),
+        line(0, kw("import "), code(CLASS, "java.util.stream.Collectors"), text(";")),
+        null,
+        line(0, code(COMMENT, Font.ITALIC, "/** Main application class */")),
+        line(0, code(ANNOTATION, "@SuppressWarnings"), text("("), code(STRING, "\"unchecked\""), text(")")),
+        line(0, kw("public class "), code(CLASS, Font.BOLD, "App"), text(" {")),
+        line(20, kw("private static final "), code(CLASS, "String "), code(CONSTANT, Font.BOLD, "VERSION"),
+            text(" = "), code(STRING, "\"1.0.0\""), text(";")),
+        line(20, kw("private "), code(CLASS, "List"), text("<"), code(CLASS, "String"), text("> "),
+            code(FIELD, "items"), text(";")),
+        null,
+        line(20, kw("public "), code(TYPE, "int "), code(FUNCTION, "getCount"), text("("), code(CLASS, "String "),
+            code(PARAMETER, "filter"), text(") {")),
+        line(40, kw("return "), code(FIELD, "items"), text("."), code(FUNCTION, "stream"), text("()")),
+        line(60, text("."), code(FUNCTION, "filter"), text("("), code(VARIABLE, "s"), text(" -> "),
+            code(VARIABLE, "s"), text("."), code(FUNCTION, "contains"), text("("), code(PARAMETER, "filter"),
+            text("))")),
+        line(60, text("."), code(FUNCTION, "toList"), text("()."), code(FUNCTION, "size"), text("();")),
+        line(20, text("}")),
+        line(0, text("}")),
+    };
+
+    private BeardedThemePreview() {
+    }
+
+    /**
+     * Renders the preview of the theme with {@code slug} from its bundled
+     * theme and scheme files, or returns {@code null} if either is missing.
+     */
+    @Nullable
+    static BufferedImage render(@NotNull String slug) {
+        BeardedThemeData theme = BeardedThemeData.load(slug);
+        BeardedEditorScheme scheme = theme != null ? BeardedEditorScheme.load(slug) : null;
+        return scheme != null ? render(theme, scheme) : null;
+    }
+
+    /**
+     * Renders the previews of all {@code slugs} on {@code executor} and waits
+     * for them, keyed by slug in the given order. Themes whose files are
+     * missing are left out.
+     */
+    @NotNull
+    static Map<String, BufferedImage> renderAll(@NotNull Collection<String> slugs, @NotNull Executor executor) {
+        List<String> list = new ArrayList<>(slugs);
+        List<CompletableFuture<BufferedImage>> images = new ArrayList<>(list.size());
+        for (String slug : list) {
+            images.add(CompletableFuture.supplyAsync(() -> render(slug), executor));
+        }
+
+        Map<String, BufferedImage> previews = new LinkedHashMap<>();
+        for (int i = 0; i < images.size(); i++) {
+            BufferedImage image = images.get(i).join();
+            if (image != null) {
+                previews.put(list.get(i), image);
+            }
+        }
+        return previews;
+    }
+
+    /**
+     * Renders the preview of {@code theme} with the syntax colors of
+     * {@code scheme} into a new {@link #WIDTH} x {@link #HEIGHT} ARGB image.
+     */
+    @NotNull
+    static BufferedImage render(@NotNull BeardedThemeData theme, @NotNull BeardedEditorScheme scheme) {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            setHints(g);
+            paint(g, theme, scheme);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private static void paint(@NotNull Graphics2D g, @NotNull BeardedThemeData theme,
+                              @NotNull BeardedEditorScheme scheme) {
+        String name = theme.getName();
+        Color background = color(theme, "*.background", Color.DARK_GRAY);
+        Color foreground = color(theme, "*.foreground", Color.LIGHT_GRAY);
+        Color separator = color(theme, "*.separatorColor", foreground);
+        Color tabs = color(theme, "EditorTabs.background", background);
+        Color treeForeground = color(theme, "Tree.foreground", foreground);
+
+        // Background
+        g.setColor(background);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+
+        // Title bar
+        g.setColor(tabs);
+        g.fillRect(0, 0, WIDTH, 32);
+        g.setColor(foreground);
+        g.setFont(TITLE_FONT);
+        g.drawString(name, 12, 22);
+
+        // Sidebar and its separator
+        g.setColor(background);
+        g.fillRect(0, 32, 200, HEIGHT - 32);
+        g.setColor(separator);
+        g.fillRect(200, 32, 1, HEIGHT - 32);
+
+        // Project tree
+        g.setFont(TREE_FONT);
+        int treeY = 52;
+        for (int i = 0; i < TREE_ITEMS.length; i++) {
+            if (i == SELECTED_TREE_ITEM) {
+                g.setColor(color(theme, "Tree.selectionBackground", separator));
+                g.fillRect(0, treeY - 12, 200, 20);
+            }
+            g.setColor(treeForeground);
+            g.drawString(TREE_ITEMS[i], 12, treeY);
+            treeY += 20;
+        }
+
+        // Editor
+        g.setColor(color(theme, "Editor.background", background));
+        g.fillRect(201, 32, WIDTH - 201, HEIGHT - 62);
+
+        // Tab bar
+        g.setColor(tabs);
+        g.fillRect(201, 32, WIDTH - 201, 28);
+        g.setColor(color(theme, "EditorTabs.underlinedTabBackground", tabs));
+        g.fillRect(201, 32, 120, 28);
+        g.setColor(color(theme, "EditorTabs.underlineColor", foreground));
+        g.fillRect(201, 57, 120, 3);
+        g.setColor(foreground);
+        g.setFont(LABEL_FONT);
+        g.drawString("App.java", 215, 50);
+        g.setColor(color(theme, "*.disabledForeground", foreground));
+        g.drawString("README.md", 335, 50);
+
+        // Gutter
+        g.setFont(GUTTER_FONT);
+        g.setColor(new Color(foreground.getRed(), foreground.getGreen(), foreground.getBlue(), 100));
+        for (int line = 1; line <= GUTTER_LINES; line++) {
+            g.drawString(String.format("%3d", line), 210, CODE_Y + (line - 1) * LINE_HEIGHT);
+        }
+
+        // Code
+        int[][] x = Layout.X;
+        for (int row = 0; row < CODE.length; row++) {
+            Line line = CODE[row];
+            if (line == null) {
+                continue;
+            }
+            int y = CODE_Y + row * LINE_HEIGHT;
+            for (int i = 0; i < line.fragments.length; i++) {
+                Fragment fragment = line.fragments[i];
+                g.setColor(fragment.attributes != null ? syntaxColor(scheme, fragment.attributes) : foreground);
+                g.setFont(CODE_FONTS[fragment.fontType]);
+                g.drawString(fragment.text, x[row][i], y);
+            }
+        }
+
+        // Status bar
+        g.setColor(color(theme, "StatusBar.background", background));
+        g.fillRect(0, HEIGHT - 28, WIDTH, 28);
+        g.setColor(separator);
+        g.fillRect(0, HEIGHT - 28, WIDTH, 1);
+        g.setColor(color(theme, "StatusBar.foreground", foreground));
+        g.setFont(LABEL_FONT);
+        g.drawString("UTF-8  |  LF  |  Java 17  |  " + name, 12, HEIGHT - 10);
+
+        // Icon palette at the bottom of the sidebar
+        int swatchY = HEIGHT - 60;
+        int swatchSize = 22;
+        int swatchX = 14;
+        g.setFont(PALETTE_FONT);
+        g.setColor(treeForeground);
+        g.drawString("Icon Palette", swatchX, swatchY - 6);
+        for (int i = 0; i < PALETTE_KEYS.length; i++) {
+            Color color = theme.iconColor("ColorPalette." + PALETTE_KEYS[i]);
+            g.setColor(color != null ? color : PALETTE_FALLBACKS[i]);
+            g.fillRoundRect(swatchX, swatchY, swatchSize, swatchSize, 4, 4);
+            swatchX += swatchSize + 6;
+        }
+    }
+
+    private static void setHints(@NotNull Graphics2D g) {
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB);
+    }
+
+    @NotNull
+    private static Color color(@NotNull BeardedThemeData theme, @NotNull String key, @NotNull Color fallback) {
+        Color color = theme.uiColor(key);
+        return color != null ? color : fallback;
+    }
+
+    @NotNull
+    private static Color syntaxColor(@NotNull BeardedEditorScheme scheme, @NotNull String key) {
+        BeardedEditorScheme.Attributes attributes = scheme.getAttributes(key);
+        Color color = attributes != null ? attributes.getForeground() : null;
+        return color != null ? color : Color.GRAY;
+    }
+
+    @NotNull
+    private static Line line(int indent, @NotNull Fragment... fragments) {
+        return new Line(indent, fragments);
+    }
+
+    @NotNull
+    private static Fragment kw(@NotNull String text) {
+        return code(KEYWORD, text);
+    }
+
+    @NotNull
+    private static Fragment text(@NotNull String text) {
+        return new Fragment(null, Font.PLAIN, text);
+    }
+
+    @NotNull
+    private static Fragment code(@NotNull String attributes, @NotNull String text) {
+        return new Fragment(attributes, Font.PLAIN, text);
+    }
+
+    @NotNull
+    private static Fragment code(@NotNull String attributes, int fontType, @NotNull String text) {
+        return new Fragment(attributes, fontType, text);
+    }
+
+    private static final class Line {
+        final int indent;
+        final Fragment[] fragments;
+
+        Line(int indent, @NotNull Fragment[] fragments) {
+            this.indent = indent;
+            this.fragments = fragments;
+        }
+    }
+
+    private static final class Fragment {
+        // Editor scheme attributes key, or null for the default foreground.
+        final String attributes;
+        final int fontType;
+        final String text;
+
+        Fragment(@Nullable String attributes, int fontType, @NotNull String text) {
+            this.attributes = attributes;
+            this.fontType = fontType;
+            this.text = text;
+        }
+    }
+
+    /**
+     * The x of every code fragment, measured once with the fonts and hints
+     * previews are drawn with.
+     */
+    private static final class Layout {
+        static final int[][] X = measure();
+
+        @NotNull
+        private static int[][] measure() {
+            Graphics2D g = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+            try {
+                setHints(g);
+                FontMetrics[] metrics = new FontMetrics[CODE_FONTS.length];
+                for (int i = 0; i < CODE_FONTS.length; i++) {
+                    metrics[i] = g.getFontMetrics(CODE_FONTS[i]);
+                }
+                int[][] x = new int[CODE.length][];
+                for (int row = 0; row < CODE.length; row++) {
+                    Line line = CODE[row];
+                    if (line == null) {
+                        continue;
+                    }
+                    x[row] = new int[line.fragments.length];
+                    int next = CODE_X + line.indent;
+                    for (int i = 0; i < line.fragments.length; i++) {
+                        x[row][i] = next;
+                        next += metrics[line.fragments[i].fontType].stringWidth(line.fragments[i].text);
+                    }
+                }
+                return x;
+            } finally {
+                g.dispose();
+            }
+        }
+    }
+}
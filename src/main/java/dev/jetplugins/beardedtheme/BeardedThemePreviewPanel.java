@@ -0,0 +1,127 @@
+package dev.jetplugins.beardedtheme;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.ui.JBColor;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.intellij.util.ui.JBUI;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Thumbnails of the light and dark themes picked on the Bearded Theme
+ * settings page, rendered by {@link BeardedThemePreview}.
+ *
+ * Previews are rendered on a single background thread and kept as
+ * thumbnails for as long as the page is open, so flipping through the
+ * combo boxes renders each theme only once.
+ */
+final class BeardedThemePreviewPanel {
+
+    private static final int THUMB_WIDTH = 320;
+    private static final int THUMB_HEIGHT = THUMB_WIDTH * BeardedThemePreview.HEIGHT / BeardedThemePreview.WIDTH;
+
+    private static final ExecutorService EXECUTOR =
+        AppExecutorUtil.createBoundedApplicationPoolExecutor("Bearded Theme Preview", 1);
+
+    // EDT only.
+    private final Map<String, BufferedImage> thumbnails = new HashMap<>();
+    private final Thumbnail light = new Thumbnail();
+    private final Thumbnail dark = new Thumbnail();
+    private final JComponent component;
+
+    BeardedThemePreviewPanel() {
+        JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        panel.add(light);
+        panel.add(Box.createHorizontalStrut(JBUI.scale(8)));
+        panel.add(dark);
+        component = panel;
+    }
+
+    @NotNull
+    JComponent getComponent() {
+        return component;
+    }
+
+    /**
+     * Shows the themes with the given slugs, or an empty frame for
+     * {@code null}. Must be called on the EDT.
+     */
+    void show(@Nullable String lightSlug, @Nullable String darkSlug) {
+        light.show(lightSlug);
+        dark.show(darkSlug);
+    }
+
+    @Nullable
+    private static BufferedImage renderThumbnail(@NotNull String slug, int width, int height) {
+        BufferedImage preview = BeardedThemePreview.render(slug);
+        if (preview == null) {
+            return null;
+        }
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = thumbnail.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(preview, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return thumbnail;
+    }
+
+    private final class Thumbnail extends JComponent {
+        private String slug;
+        private BufferedImage image;
+
+        Thumbnail() {
+            setPreferredSize(new Dimension(JBUI.scale(THUMB_WIDTH), JBUI.scale(THUMB_HEIGHT)));
+        }
+
+        void show(@Nullable String newSlug) {
+            if (Objects.equals(slug, newSlug)) {
+                return;
+            }
+            slug = newSlug;
+            image = newSlug != null ? thumbnails.get(newSlug) : null;
+            BeardedThemeCatalog.Theme theme = newSlug != null ? BeardedThemeCatalog.bySlug(newSlug) : null;
+            setToolTipText(theme != null ? theme.getName() : null);
+            repaint();
+            if (newSlug == null || image != null) {
+                return;
+            }
+            int width = JBUI.scale(THUMB_WIDTH);
+            int height = JBUI.scale(THUMB_HEIGHT);
+            EXECUTOR.execute(() -> {
+                BufferedImage thumbnail = renderThumbnail(newSlug, width, height);
+                ApplicationManager.getApplication().invokeLater(() -> {
+                    if (thumbnail == null) {
+                        return;
+                    }
+                    thumbnails.put(newSlug, thumbnail);
+                    if (newSlug.equals(slug)) {
+                        image = thumbnail;
+                        repaint();
+                    }
+                }, ModalityState.any());
+            });
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            if (image != null) {
+                g.drawImage(image, 0, 0, getWidth(), getHeight(), null);
+            }
+            g.setColor(JBColor.border());
+            g.drawRect(0, 0, getWidth() - 1, getHeight() - 1);
+        }
+    }
+}
@@ -1,30 +1,251 @@
 package dev.jetplugins.beardedtheme;
 
+import com.intellij.notification.NotificationGroupManager;
+import com.intellij.notification.NotificationType;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.components.PersistentStateComponent;
 import com.intellij.openapi.components.State;
 import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 @State(name = "BeardedThemeSettings", storages = @Storage("bearded-theme.xml"))
 public final class BeardedThemeSettings implements PersistentStateComponent<BeardedThemeSettings.State> {
 
+    private static final Logger LOG = Logger.getInstance(BeardedThemeSettings.class);
+    private static final String NOTIFICATION_GROUP = "Bearded Theme";
+
+    /**
+     * How the Bearded theme follows the time of day.
+     */
+    public enum AutoSwitch {
+        OFF,
+        FOLLOW_SYSTEM,
+        SCHEDULE
+    }
+
     public static class State {
         public boolean iconsEnabled = true;
+        public boolean contentSniffing = false;
+        public boolean tintIcons = true;
+        public AutoSwitch autoSwitch = AutoSwitch.OFF;
+        public String lightTheme = "anthracite-light";
+        public String darkTheme = "anthracite";
+        // Minutes after midnight, local time.
+        public int dayStart = 7 * 60;
+        public int nightStart = 19 * 60;
+        public Map<String, String> customExtensions = new LinkedHashMap<>();
+        public Map<String, String> customFileNames = new LinkedHashMap<>();
+        public Map<String, String> customFolders = new LinkedHashMap<>();
+    }
+
+    /**
+     * Immutable copy of the settings, read on hot paths such as icon
+     * resolution without going through the service container.
+     */
+    public static final class Snapshot {
+        private final boolean iconsEnabled;
+        private final boolean contentSniffing;
+        private final boolean tintIcons;
+        private final AutoSwitch autoSwitch;
+        private final String lightTheme;
+        private final String darkTheme;
+        private final int dayStart;
+        private final int nightStart;
+        private final Map<String, String> customExtensions;
+        private final Map<String, String> customFileNames;
+        private final Map<String, String> customFolders;
+
+        private Snapshot(@NotNull State state) {
+            this.iconsEnabled = state.iconsEnabled;
+            this.contentSniffing = state.contentSniffing;
+            this.tintIcons = state.tintIcons;
+            this.autoSwitch = state.autoSwitch != null ? state.autoSwitch : AutoSwitch.OFF;
+            this.lightTheme = state.lightTheme;
+            this.darkTheme = state.darkTheme;
+            this.dayStart = state.dayStart;
+            this.nightStart = state.nightStart;
+            this.customExtensions = copyOf(state.customExtensions);
+            this.customFileNames = copyOf(state.customFileNames);
+            this.customFolders = copyOf(state.customFolders);
+        }
+
+        public boolean isIconsEnabled() {
+            return iconsEnabled;
+        }
+
+        public boolean isContentSniffingEnabled() {
+            return contentSniffing;
+        }
+
+        public boolean isIconTintEnabled() {
+            return tintIcons;
+        }
+
+        public @NotNull AutoSwitch getAutoSwitch() {
+            return autoSwitch;
+        }
+
+        public @Nullable String getLightTheme() {
+            return lightTheme;
+        }
+
+        public @Nullable String getDarkTheme() {
+            return darkTheme;
+        }
+
+        public int getDayStart() {
+            return dayStart;
+        }
+
+        public int getNightStart() {
+            return nightStart;
+        }
+
+        boolean hasSameAutoSwitch(@NotNull Snapshot other) {
+            return autoSwitch == other.autoSwitch
+                && Objects.equals(lightTheme, other.lightTheme)
+                && Objects.equals(darkTheme, other.darkTheme)
+                && dayStart == other.dayStart
+                && nightStart == other.nightStart;
+        }
+
+        public @NotNull Map<String, String> getCustomExtensions() {
+            return customExtensions;
+        }
+
+        public @NotNull Map<String, String> getCustomFileNames() {
+            return customFileNames;
+        }
+
+        public @NotNull Map<String, String> getCustomFolders() {
+            return customFolders;
+        }
+
+        boolean hasAssociations(@NotNull Map<String, String> extensions, @NotNull Map<String, String> fileNames,
+                                @NotNull Map<String, String> folders) {
+            return sameInOrder(customExtensions, extensions)
+                && sameInOrder(customFileNames, fileNames)
+                && sameInOrder(customFolders, folders);
+        }
+
+        static boolean sameInOrder(@NotNull Map<String, String> a, @NotNull Map<String, String> b) {
+            return new ArrayList<>(a.entrySet()).equals(new ArrayList<>(b.entrySet()));
+        }
+
+        private static Map<String, String> copyOf(Map<String, String> map) {
+            // Keep insertion order: custom patterns are matched in table order.
+            return map == null ? Collections.emptyMap() : Collections.unmodifiableMap(new LinkedHashMap<>(map));
+        }
     }
 
+    // Published by the service instance; null until the service is loaded.
+    private static volatile Snapshot snapshot;
+
+    private final AtomicLong indexRequests = new AtomicLong();
+    private final Object indexLock = new Object();
     private State state = new State();
 
+    public BeardedThemeSettings() {
+        snapshot = new Snapshot(state);
+    }
+
     public static BeardedThemeSettings getInstance() {
         return ApplicationManager.getApplication().getService(BeardedThemeSettings.class);
     }
 
+    /**
+     * Returns the current settings without a service lookup once the
+     * service has been loaded.
+     */
+    public static @NotNull Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            getInstance();
+            current = snapshot;
+        }
+        return current;
+    }
+
     public boolean isIconsEnabled() {
         return state.iconsEnabled;
     }
 
     public void setIconsEnabled(boolean enabled) {
-        state.iconsEnabled = enabled;
+        if (state.iconsEnabled != enabled) {
+            state.iconsEnabled = enabled;
+            publish();
+        }
+    }
+
+    public boolean isContentSniffingEnabled() {
+        return state.contentSniffing;
+    }
+
+    public void setContentSniffingEnabled(boolean enabled) {
+        if (state.contentSniffing != enabled) {
+            state.contentSniffing = enabled;
+            publish();
+        }
+    }
+
+    public boolean isIconTintEnabled() {
+        return state.tintIcons;
+    }
+
+    public void setIconTintEnabled(boolean enabled) {
+        if (state.tintIcons != enabled) {
+            state.tintIcons = enabled;
+            publish();
+        }
+    }
+
+    /**
+     * Replaces the automatic light/dark switching settings. {@code dayStart}
+     * and {@code nightStart} are minutes after midnight.
+     */
+    public void setAutoSwitch(@NotNull AutoSwitch mode, @Nullable String lightTheme, @Nullable String darkTheme,
+                              int dayStart, int nightStart) {
+        if (state.autoSwitch != mode || !Objects.equals(state.lightTheme, lightTheme)
+            || !Objects.equals(state.darkTheme, darkTheme)
+            || state.dayStart != dayStart || state.nightStart != nightStart) {
+            state.autoSwitch = mode;
+            state.lightTheme = lightTheme;
+            state.darkTheme = darkTheme;
+            state.dayStart = dayStart;
+            state.nightStart = nightStart;
+            publish();
+        }
+    }
+
+    /**
+     * Replaces the user-defined icon associations. The merged icon index is
+     * rebuilt on a background thread and swapped in once complete; file name
+     * patterns that do not compile are left out of it and reported in a
+     * notification.
+     */
+    public void setCustomAssociations(@NotNull Map<String, String> extensions,
+                                      @NotNull Map<String, String> fileNames,
+                                      @NotNull Map<String, String> folders) {
+        if (snapshot.hasAssociations(extensions, fileNames, folders)) {
+            return;
+        }
+        state.customExtensions = new LinkedHashMap<>(extensions);
+        state.customFileNames = new LinkedHashMap<>(fileNames);
+        state.customFolders = new LinkedHashMap<>(folders);
+        publish();
+        rebuildIconIndex(snapshot);
     }
 
     @Override
@@ -35,5 +256,84 @@ public final class BeardedThemeSettings implements PersistentStateComponent<Bear
     @Override
     public void loadState(@NotNull State state) {
         this.state = state;
+        snapshot = new Snapshot(state);
+        rebuildIconIndex(snapshot);
+    }
+
+    private void publish() {
+        Snapshot oldSnapshot = snapshot;
+        Snapshot newSnapshot = new Snapshot(state);
+        snapshot = newSnapshot;
+        ApplicationManager.getApplication().getMessageBus()
+            .syncPublisher(BeardedThemeSettingsListener.TOPIC)
+            .settingsChanged(oldSnapshot, newSnapshot);
+    }
+
+    private void rebuildIconIndex(@NotNull Snapshot settings) {
+        long request = indexRequests.incrementAndGet();
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            List<String> problems = new ArrayList<>();
+            Map<String, String> fileNames = validFileNames(settings.getCustomFileNames(), problems);
+            BeardedIconIndex index;
+            try {
+                index = BeardedIconIndex.defaults()
+                    .custom(settings.getCustomExtensions(), fileNames, settings.getCustomFolders())
+                    .build();
+            } catch (IllegalArgumentException e) {
+                // Each pattern compiles on its own, but not all of them together.
+                problems.add("The custom file name patterns are too complex together: " + e.getMessage());
+                fileNames.keySet().removeIf(BeardedGlobMatcher.Builder::isGlob);
+                index = BeardedIconIndex.defaults()
+                    .custom(settings.getCustomExtensions(), fileNames, settings.getCustomFolders())
+                    .build();
+            }
+            synchronized (indexLock) {
+                // A newer request supersedes this one; let it install its own index.
+                if (request != indexRequests.get()) {
+                    return;
+                }
+                BeardedIconIndex.install(index);
+            }
+            BeardedIconCache.getInstance().clear();
+            ApplicationManager.getApplication().getMessageBus()
+                .syncPublisher(BeardedThemeSettingsListener.TOPIC)
+                .iconIndexChanged();
+            if (!problems.isEmpty()) {
+                notifyIgnored(problems);
+            }
+        });
+    }
+
+    private static void notifyIgnored(@NotNull List<String> problems) {
+        problems.forEach(problem -> LOG.warn("Bearded Theme: " + problem));
+        NotificationGroupManager.getInstance()
+            .getNotificationGroup(NOTIFICATION_GROUP)
+            .createNotification(
+                "Bearded Theme — custom icon associations ignored",
+                String.join("<br>", ContainerUtil.map(problems, StringUtil::escapeXmlEntities)),
+                NotificationType.WARNING)
+            .notify(null);
+    }
+
+    /**
+     * Returns {@code fileNames} without the patterns that do not compile,
+     * adding a problem to {@code problems} for each one that is left out.
+     */
+    @NotNull
+    private static Map<String, String> validFileNames(@NotNull Map<String, String> fileNames,
+                                                      @NotNull List<String> problems) {
+        Map<String, String> valid = new LinkedHashMap<>();
+        fileNames.forEach((name, iconId) -> {
+            if (BeardedGlobMatcher.Builder.isGlob(name)) {
+                try {
+                    BeardedGlobMatcher.Builder.validate(name);
+                } catch (IllegalArgumentException e) {
+                    problems.add("\"" + name + "\": " + e.getMessage());
+                    return;
+                }
+            }
+            valid.put(name, iconId);
+        });
+        return valid;
     }
 }
@@ -0,0 +1,27 @@
+package dev.jetplugins.beardedtheme;
+
+import com.intellij.util.messages.Topic;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Notified on the application message bus after {@link BeardedThemeSettings}
+ * changes. Messages are broadcast to project buses as well.
+ */
+public interface BeardedThemeSettingsListener {
+
+    @Topic.AppLevel
+    Topic<BeardedThemeSettingsListener> TOPIC =
+        new Topic<>(BeardedThemeSettingsListener.class, Topic.BroadcastDirection.TO_CHILDREN);
+
+    default void settingsChanged(@NotNull BeardedThemeSettings.Snapshot oldSettings,
+                                 @NotNull BeardedThemeSettings.Snapshot newSettings) {
+    }
+
+    /**
+     * Called once an icon index rebuilt from the custom associations has
+     * been installed, which happens on a background thread some time after
+     * the corresponding {@link #settingsChanged}.
+     */
+    default void iconIndexChanged() {
+    }
+}
@@ -1,10 +1,18 @@
 package dev.jetplugins.beardedtheme;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.testFramework.LightVirtualFile;
 import org.junit.Test;
 
+import java.awt.Color;
+import java.awt.image.BufferedImage;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -15,6 +23,7 @@ import static org.assertj.core.api.Assertions.*;
 public class IconProviderTest {
 
     private static final Path ICONS_DIR = Paths.get("src/main/resources/icons");
+    private static final Path THEMES_DIR = Paths.get("build/generated/themes/themes");
 
     @Test
     public void allIconSvgFilesExist() throws Exception {
@@ -23,14 +32,14 @@ public class IconProviderTest {
 
         // File extension icons
         expectedIcons.addAll(Arrays.asList(
-            "java", "kotlin", "python", "javascript", "typescript", "react", "react_ts",
+            "java", "kotlin", "python", "javascript", "typescript", "typescript_def", "react", "react_ts",
             "go", "rust", "ruby", "php", "csharp", "cpp", "c", "c_header", "cpp_header",
             "swift", "scala", "clojure", "elixir", "erlang", "haskell", "lua", "r",
             "dart", "vue", "svelte", "html", "css", "sass", "less", "stylus", "xml",
             "svg", "json", "yaml", "toml", "settings", "markdown", "text", "tex", "pdf",
             "shell", "powershell", "database", "csv", "graphql", "protobuf",
             "gradle", "groovy", "terraform", "docker", "git", "editorconfig",
-            "prettier", "eslint", "webpack", "vite", "rollup", "babel", "jest", "vitest",
+            "prettier", "eslint", "webpack", "vite", "rollup", "babel", "jest", "vitest", "test",
             "nodejs", "npm", "yarn", "pnpm", "nginx", "image", "archive", "lock", "key",
             "license", "changelog", "readme", "env", "jupyter", "maven", "makefile", "cmake"
         ));
@@ -54,6 +63,263 @@ public class IconProviderTest {
         }
     }
 
+    @Test
+    public void allIndexedIconsExist() {
+        for (String iconName : BeardedIconIndex.getDefault().iconIds()) {
+            assertThat(ICONS_DIR.resolve(iconName + ".svg"))
+                .as("Indexed icon SVG should exist: " + iconName + ".svg")
+                .exists();
+        }
+    }
+
+    @Test
+    public void indexResolvesNamesIgnoringCase() {
+        BeardedIconIndex index = BeardedIconIndex.getDefault();
+
+        assertThat(index.fileIconId("Main.java")).isEqualTo("java");
+        assertThat(index.fileIconId("SCRIPT.PY")).isEqualTo("python");
+        assertThat(index.fileIconId("Makefile")).isEqualTo("makefile");
+        assertThat(index.fileIconId("makefile")).isEqualTo("makefile");
+        assertThat(index.fileIconId("Cargo.toml")).isEqualTo("rust");
+        assertThat(index.fileIconId(".gitignore")).isEqualTo("git");
+        assertThat(index.fileIconId("notes.unknown")).isNull();
+        assertThat(index.fileIconId("java")).isNull();
+
+        assertThat(index.folderIconId("src")).isEqualTo("folder_src");
+        assertThat(index.folderIconId("Node_Modules")).isEqualTo("folder_node");
+        assertThat(index.folderIconId("nothing")).isNull();
+    }
+
+    @Test
+    public void indexPrefersLongestCompoundExtension() {
+        BeardedIconIndex index = BeardedIconIndex.getDefault();
+
+        assertThat(index.fileIconId("foo.d.ts")).isEqualTo("typescript_def");
+        assertThat(index.fileIconId("d.ts")).isEqualTo("typescript");
+        assertThat(index.fileIconId("App.test.tsx")).isEqualTo("test");
+        assertThat(index.fileIconId("App.tsx")).isEqualTo("react_ts");
+        assertThat(index.fileIconId("x.SPEC.js")).isEqualTo("test");
+        assertThat(index.fileIconId("bundle.tar.gz")).isEqualTo("archive");
+        assertThat(index.fileIconId("contest.ts")).isEqualTo("typescript");
+        assertThat(index.fileIconId("docker-compose.override.yml")).isEqualTo("docker");
+    }
+
+    @Test
+    public void indexMatchesPatternRules() {
+        BeardedIconIndex index = BeardedIconIndex.getDefault();
+
+        assertThat(index.fileIconId("Dockerfile.prod")).isEqualTo("docker");
+        assertThat(index.fileIconId(".env.staging")).isEqualTo("env");
+        assertThat(index.fileIconId("tsconfig.build.json")).isEqualTo("typescript");
+        assertThat(index.fileIconId("jest.config.mjs")).isEqualTo("jest");
+        assertThat(index.fileIconId("vite.config.mts")).isEqualTo("vite");
+        assertThat(index.fileIconId("tailwind.config.js")).isEqualTo("settings");
+        assertThat(index.fileIconId("docker-compose.prod.yaml")).isEqualTo("docker");
+
+        // Exact names win over patterns, patterns win over extensions
+        assertThat(index.fileIconId("tsconfig.json")).isEqualTo("typescript");
+        assertThat(index.fileIconId("settings.config.json")).isEqualTo("json");
+        assertThat(index.fileIconId("License.java")).isEqualTo("java");
+    }
+
+    @Test
+    public void customAssociationsOverrideBuiltIns() {
+        Map<String, String> extensions = new LinkedHashMap<>();
+        extensions.put(".tsx", "typescript");
+        extensions.put("acme", "settings");
+        Map<String, String> fileNames = new LinkedHashMap<>();
+        fileNames.put("package.json", "npm");
+        fileNames.put("jest.config.*", "vitest");
+        Map<String, String> folders = Collections.singletonMap("src", "folder_lib");
+
+        BeardedIconIndex index = BeardedIconIndex.defaults().custom(extensions, fileNames, folders).build();
+
+        assertThat(index.fileIconId("App.tsx")).isEqualTo("typescript");
+        assertThat(index.fileIconId("build.ACME")).isEqualTo("settings");
+        assertThat(index.fileIconId("package.json")).isEqualTo("npm");
+        assertThat(index.fileIconId("jest.config.ts")).isEqualTo("vitest");
+        assertThat(index.folderIconId("src")).isEqualTo("folder_lib");
+        assertThat(index.fileIconId("Main.java")).isEqualTo("java");
+    }
+
+    @Test
+    public void batchResolutionMatchesSingleLookups() {
+        BeardedIconIndex index = BeardedIconIndex.getDefault();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            names.add(new String[]{"index.ts", "INDEX.TS", "package.json", "App.test.tsx", "no-extension",
+                ".env.local", "Main" + i + ".java"}[i % 7]);
+        }
+
+        String[] batch = index.fileIconIds(names);
+
+        assertThat(batch).hasSize(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            assertThat(batch[i]).as(names.get(i)).isEqualTo(index.fileIconId(names.get(i)));
+        }
+        assertThat(index.folderIconIds(Arrays.asList("src", "SRC", "unknown")))
+            .containsExactly("folder_src", "folder_src", null);
+        assertThat(index.fileIconIds(Collections.emptyList())).isEmpty();
+    }
+
+    @Test
+    public void globMatcherPrefersFirstRegisteredRule() {
+        BeardedGlobMatcher matcher = new BeardedGlobMatcher.Builder()
+            .add("a?c.*", "first")
+            .add("*.{x,y}", "second")
+            .build();
+
+        assertThat(matcher.match("ABC.x")).isEqualTo("first");
+        assertThat(matcher.match("zz.Y")).isEqualTo("second");
+        assertThat(matcher.match("ac.x")).isEqualTo("second");
+        assertThat(matcher.match("abc")).isNull();
+        assertThat(new BeardedGlobMatcher.Builder().build().match("anything")).isNull();
+    }
+
+    @Test
+    public void cacheDropsIdsResolvedAcrossAnInvalidation() throws Exception {
+        BeardedIconIndex custom = BeardedIconIndex.defaults()
+            .custom(Collections.singletonMap("java", "custom_java"), Collections.emptyMap(), Collections.emptyMap())
+            .build();
+        assertThat(custom.fileIconId("Main.java")).isEqualTo("custom_java");
+
+        List<VirtualFile> files = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            files.add(new LightVirtualFile("File" + i + ".java"));
+        }
+        BeardedIconCache cache = new BeardedIconCache();
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            for (int round = 0; round < 500; round++) {
+                // Resolvers run while the index is swapped and the cache
+                // invalidated, the way BeardedThemeSettings rebuilds it.
+                BeardedIconIndex next = round % 2 == 0 ? custom : BeardedIconIndex.getDefault();
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> resolvers = new ArrayList<>();
+                for (int t = 0; t < 3; t++) {
+                    boolean batch = t == 0;
+                    resolvers.add(pool.submit(() -> {
+                        start.await();
+                        if (batch) {
+                            cache.getIconIds(files);
+                        } else {
+                            files.forEach(cache::getIconId);
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                BeardedIconIndex.install(next);
+                if (round % 4 < 2) {
+                    cache.clear();
+                } else {
+                    files.forEach(cache::invalidate);
+                }
+                for (Future<?> resolver : resolvers) {
+                    resolver.get();
+                }
+
+                for (VirtualFile file : files) {
+                    assertThat(cache.getIconId(file)).as("round %d, %s", round, file.getName())
+                        .isEqualTo(next.fileIconId(file.getNameSequence()));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+            BeardedIconIndex.install(BeardedIconIndex.getDefault());
+        }
+    }
+
+    @Test
+    public void globMatcherRejectsPatternsThatBlowUp() {
+        assertThatThrownBy(() -> BeardedGlobMatcher.Builder.validate("*a" + "?".repeat(16)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("automaton states");
+        assertThatThrownBy(() -> BeardedGlobMatcher.Builder.validate("{a,b}".repeat(40)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Too many alternatives");
+        assertThatThrownBy(() -> BeardedGlobMatcher.Builder.validate("*.{ts"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("*.{ts");
+        assertThatCode(() -> BeardedGlobMatcher.Builder.validate("*a" + "?".repeat(8))).doesNotThrowAnyException();
+    }
+
+    @Test
+    public void indexCountsHitsByTable() {
+        BeardedIconIndex index = BeardedIconIndex.getDefault();
+        long fileNames = BeardedIconMetrics.hits(BeardedIconMetrics.Table.FILE_NAME);
+        long extensions = BeardedIconMetrics.hits(BeardedIconMetrics.Table.EXTENSION);
+        long folders = BeardedIconMetrics.hits(BeardedIconMetrics.Table.FOLDER);
+        long misses = BeardedIconMetrics.misses();
+
+        index.fileIconId("package.json");
+        index.fileIconId("Main.java");
+        index.folderIconId("src");
+        index.fileIconId("no-extension");
+
+        assertThat(BeardedIconMetrics.hits(BeardedIconMetrics.Table.FILE_NAME)).isEqualTo(fileNames + 1);
+        assertThat(BeardedIconMetrics.hits(BeardedIconMetrics.Table.EXTENSION)).isEqualTo(extensions + 1);
+        assertThat(BeardedIconMetrics.hits(BeardedIconMetrics.Table.FOLDER)).isEqualTo(folders + 1);
+        assertThat(BeardedIconMetrics.misses()).isEqualTo(misses + 1);
+        assertThat(BeardedIconMetrics.bucketOf(0)).isZero();
+        assertThat(BeardedIconMetrics.bucketOf(200)).isEqualTo(1);
+        assertThat(BeardedIconMetrics.bucketOf(Long.MAX_VALUE)).isEqualTo(11);
+    }
+
+    @Test
+    public void contentSignaturesDetectShebangsAndMagicBytes() {
+        assertThat(detect("#!/bin/sh\nexec java -jar x.jar")).isEqualTo("shell");
+        assertThat(detect("#!/usr/bin/env python3.12\nprint()")).isEqualTo("python");
+        assertThat(detect("#!/usr/bin/env -S node --no-warnings\n")).isEqualTo("javascript");
+        assertThat(detect("\uFEFF#!/usr/bin/ruby -w")).isEqualTo("ruby");
+        assertThat(detect("%PDF-1.7")).isEqualTo("pdf");
+        assertThat(detect("PK\u0003\u0004rest")).isEqualTo("archive");
+        assertThat(detect("#!/usr/bin/env unknown-tool")).isNull();
+        assertThat(detect("plain text")).isNull();
+        assertThat(detect("")).isNull();
+
+        byte[] png = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n'};
+        assertThat(BeardedContentSignatures.detect(png, png.length)).isEqualTo("image");
+    }
+
+    private static String detect(String head) {
+        byte[] bytes = head.getBytes(StandardCharsets.UTF_8);
+        return BeardedContentSignatures.detect(bytes, bytes.length);
+    }
+
+    @Test
+    public void everyThemeHasATintPalette() throws Exception {
+        try (DirectoryStream<Path> themes = Files.newDirectoryStream(THEMES_DIR, "*.theme.json")) {
+            for (Path theme : themes) {
+                JsonElement json = JsonParser.parseString(new String(Files.readAllBytes(theme), StandardCharsets.UTF_8));
+                assertThat(BeardedIconTint.paletteHues(json)).as(theme.getFileName().toString()).isNotEmpty();
+            }
+        }
+    }
+
+    @Test
+    public void tintMovesAccentHueToNearestPaletteColor() {
+        int accent = 0xFFE53935;  // red
+        int neutral = 0xFF2D2D2D;
+        BufferedImage atlas = new BufferedImage(4, 2, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < 2; y++) {
+            atlas.setRGB(0, y, accent);
+            atlas.setRGB(1, y, neutral);
+            atlas.setRGB(2, y, neutral);
+        }
+        float blue = Color.RGBtoHSB(0x42, 0xA5, 0xF5, null)[0];
+
+        BufferedImage tinted = BeardedIconTint.tint(atlas, 2, new float[]{blue});
+
+        float[] hsb = Color.RGBtoHSB((tinted.getRGB(0, 0) >> 16) & 0xFF, (tinted.getRGB(0, 0) >> 8) & 0xFF,
+            tinted.getRGB(0, 0) & 0xFF, null);
+        assertThat(hsb[0]).isCloseTo(blue, within(0.01f));
+        assertThat(tinted.getRGB(1, 0)).isEqualTo(neutral);
+        assertThat(tinted.getRGB(2, 1)).isEqualTo(neutral);
+        assertThat(tinted.getRGB(3, 0) >>> 24).isZero();
+        assertThat(BeardedIconTint.tint(atlas, 2, new float[0])).isSameAs(atlas);
+    }
+
     @Test
     public void allIconsContainValidSvg() throws Exception {
         try (DirectoryStream<Path> stream = Files.newDirectoryStream(ICONS_DIR, "*.svg")) {
@@ -0,0 +1,195 @@
+package dev.jetplugins.beardedtheme;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Pixel difference between two images over the area they share.
+ *
+ * Pixels are compared as packed ARGB ints. {@code TYPE_INT_ARGB} and
+ * {@code TYPE_INT_RGB} images are read straight from their data buffer;
+ * other images are copied into an int array once. Rows are split into
+ * bands that are compared in parallel.
+ *
+ * A pixel differs when its color is further from the baseline than the
+ * tolerance, measured either as the largest channel difference or as the
+ * CIE76 color difference (deltaE) in CIELAB. Alpha is not compared.
+ */
+final class ImageDiff {
+
+    enum Metric {
+        /** Largest difference of the red, green and blue channels, 0 to 255. */
+        MAX_CHANNEL,
+        /** CIE76 deltaE; about 2.3 is the smallest difference people notice. */
+        DELTA_E
+    }
+
+    private static final int BAND_ROWS = 32;
+
+    // sRGB channel value to linear light.
+    private static final double[] LINEAR = new double[256];
+
+    static {
+        for (int i = 0; i < LINEAR.length; i++) {
+            double c = i / 255.0;
+            LINEAR[i] = c <= 0.04045 ? c / 12.92 : Math.pow((c + 0.055) / 1.055, 2.4);
+        }
+    }
+
+    private final Pixels baseline;
+    private final Pixels current;
+    private final int width;
+    private final int height;
+    private final Metric metric;
+    private final double tolerance;
+
+    private ImageDiff(BufferedImage baseline, BufferedImage current, Metric metric, double tolerance) {
+        this.width = Math.min(baseline.getWidth(), current.getWidth());
+        this.height = Math.min(baseline.getHeight(), current.getHeight());
+        this.baseline = Pixels.of(baseline, width, height);
+        this.current = Pixels.of(current, width, height);
+        this.metric = metric;
+        this.tolerance = tolerance;
+    }
+
+    static ImageDiff of(BufferedImage baseline, BufferedImage current, Metric metric, double tolerance) {
+        return new ImageDiff(baseline, current, metric, tolerance);
+    }
+
+    int totalPixels() {
+        return width * height;
+    }
+
+    /**
+     * Counts the differing pixels. Stops early once more than {@code limit}
+     * are found, in which case the result is more than {@code limit} but
+     * not the exact count.
+     */
+    int countDifferences(int limit) {
+        AtomicInteger count = new AtomicInteger();
+        IntStream.range(0, bands()).parallel().forEach(band -> {
+            int end = Math.min(height, (band + 1) * BAND_ROWS);
+            for (int y = band * BAND_ROWS; y < end; y++) {
+                int b = baseline.offset + y * baseline.stride;
+                int c = current.offset + y * current.stride;
+                int found = 0;
+                for (int x = 0; x < width; x++) {
+                    if (differs(baseline.data[b + x], current.data[c + x])) {
+                        found++;
+                    }
+                }
+                // Another band may already have gone over the limit.
+                if ((found > 0 ? count.addAndGet(found) : count.get()) > limit) {
+                    return;
+                }
+            }
+        });
+        return count.get();
+    }
+
+    /**
+     * Renders the difference: differing pixels in red, pixels within the
+     * tolerance as in the current image, and identical pixels as a
+     * translucent copy of the current image.
+     */
+    BufferedImage diffImage() {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        int[] out = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        IntStream.range(0, bands()).parallel().forEach(band -> {
+            int end = Math.min(height, (band + 1) * BAND_ROWS);
+            for (int y = band * BAND_ROWS; y < end; y++) {
+                int b = baseline.offset + y * baseline.stride;
+                int c = current.offset + y * current.stride;
+                int o = y * width;
+                for (int x = 0; x < width; x++) {
+                    int bArgb = baseline.data[b + x] | baseline.opaque;
+                    int cArgb = current.data[c + x] | current.opaque;
+                    if (bArgb == cArgb) {
+                        out[o + x] = (cArgb & 0x00FFFFFF) | 0x40000000;
+                    } else if (differs(bArgb, cArgb)) {
+                        out[o + x] = 0xFFFF0000;
+                    } else {
+                        out[o + x] = cArgb;
+                    }
+                }
+            }
+        });
+        return image;
+    }
+
+    private int bands() {
+        return (height + BAND_ROWS - 1) / BAND_ROWS;
+    }
+
+    private boolean differs(int b, int c) {
+        if (((b ^ c) & 0x00FFFFFF) == 0) {
+            return false;
+        }
+        if (metric == Metric.MAX_CHANNEL) {
+            int r = Math.abs(((b >> 16) & 0xFF) - ((c >> 16) & 0xFF));
+            int g = Math.abs(((b >> 8) & 0xFF) - ((c >> 8) & 0xFF));
+            int bl = Math.abs((b & 0xFF) - (c & 0xFF));
+            return Math.max(r, Math.max(g, bl)) > tolerance;
+        }
+        return deltaE(b, c) > tolerance;
+    }
+
+    static double deltaE(int rgb1, int rgb2) {
+        double[] lab1 = lab(rgb1);
+        double[] lab2 = lab(rgb2);
+        double dl = lab1[0] - lab2[0];
+        double da = lab1[1] - lab2[1];
+        double db = lab1[2] - lab2[2];
+        return Math.sqrt(dl * dl + da * da + db * db);
+    }
+
+    // sRGB to CIELAB with the D65 white point.
+    private static double[] lab(int rgb) {
+        double r = LINEAR[(rgb >> 16) & 0xFF];
+        double g = LINEAR[(rgb >> 8) & 0xFF];
+        double b = LINEAR[rgb & 0xFF];
+        double x = labF((0.4124 * r + 0.3576 * g + 0.1805 * b) / 0.95047);
+        double y = labF(0.2126 * r + 0.7152 * g + 0.0722 * b);
+        double z = labF((0.0193 * r + 0.1192 * g + 0.9505 * b) / 1.08883);
+        return new double[]{116 * y - 16, 500 * (x - y), 200 * (y - z)};
+    }
+
+    private static double labF(double t) {
+        return t > 216.0 / 24389 ? Math.cbrt(t) : (24389.0 / 27 * t + 16) / 116;
+    }
+
+    /** Packed pixels of an image, row {@code y} starting at {@code offset + y * stride}. */
+    private static final class Pixels {
+        final int[] data;
+        final int offset;
+        final int stride;
+        // Alpha to add to each pixel; TYPE_INT_RGB stores none.
+        final int opaque;
+
+        private Pixels(int[] data, int offset, int stride, int opaque) {
+            this.data = data;
+            this.offset = offset;
+            this.stride = stride;
+            this.opaque = opaque;
+        }
+
+        static Pixels of(BufferedImage image, int width, int height) {
+            int type = image.getType();
+            Raster raster = image.getRaster();
+            if ((type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB)
+                && raster.getDataBuffer() instanceof DataBufferInt
+                && raster.getSampleModel() instanceof SinglePixelPackedSampleModel
+                && raster.getSampleModelTranslateX() == 0 && raster.getSampleModelTranslateY() == 0) {
+                DataBufferInt buffer = (DataBufferInt) raster.getDataBuffer();
+                int stride = ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride();
+                return new Pixels(buffer.getData(), buffer.getOffset(), stride,
+                    type == BufferedImage.TYPE_INT_RGB ? 0xFF000000 : 0);
+            }
+            return new Pixels(image.getRGB(0, 0, width, height, null, 0, width), 0, width, 0);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package dev.jetplugins.beardedtheme;
+
+import org.junit.runners.Parameterized;
+import org.junit.runners.model.RunnerScheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * {@link Parameterized} runner that runs the parameter sets concurrently,
+ * one task per parameter set on a pool sized to the machine. The tests of
+ * one parameter set still run one after another, so a test class only has
+ * to be safe across parameters, not across its own methods.
+ */
+public class ParallelParameterized extends Parameterized {
+
+    public ParallelParameterized(Class<?> klass) throws Throwable {
+        super(klass);
+        setScheduler(new PoolScheduler());
+    }
+
+    private static final class PoolScheduler implements RunnerScheduler {
+
+        private final ExecutorService executor = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "ParallelParameterized");
+                thread.setDaemon(true);
+                return thread;
+            });
+        private final List<Future<?>> tasks = new ArrayList<>();
+
+        @Override
+        public void schedule(Runnable childStatement) {
+            tasks.add(executor.submit(childStatement));
+        }
+
+        @Override
+        public void finished() {
+            try {
+                for (Future<?> task : tasks) {
+                    task.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+}
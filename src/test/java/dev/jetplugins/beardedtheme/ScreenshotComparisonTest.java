@@ -7,11 +7,12 @@ import org.junit.Test;
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -20,8 +21,9 @@ import static org.assertj.core.api.Assertions.*;
  * themes and validates visual consistency. Also compares against baseline
  * screenshots if they exist.
  *
- * Run ThemeValidationTest first to generate individual screenshots, then
- * run this test to create comparison grids and validate against baselines.
+ * The previews of all themes are rendered in parallel before the tests run,
+ * so this test does not depend on ThemeValidationTest having written its
+ * screenshots.
  */
 public class ScreenshotComparisonTest {
 
@@ -30,8 +32,16 @@ public class ScreenshotComparisonTest {
     private static final Path BASELINE_DIR = Paths.get("src/test/resources/baselines");
     private static final Path DIFF_DIR = Paths.get("build/screenshots/diffs");
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    // Allow up to 1% pixel difference for antialiasing
+    private static final double MAX_DIFF_PERCENT = 1.0;
+    // Per-pixel tolerance: channel distance by default, or CIE76 deltaE when
+    // the screenshots.deltaE system property sets one (./gradlew test -PscreenshotDeltaE=2.3)
+    private static final String DELTA_E = System.getProperty("screenshots.deltaE");
+    private static final ImageDiff.Metric METRIC = DELTA_E != null ? ImageDiff.Metric.DELTA_E : ImageDiff.Metric.MAX_CHANNEL;
+    private static final double TOLERANCE = DELTA_E != null ? Double.parseDouble(DELTA_E) : 5;
 
     private static List<JsonObject> themeList;
+    private static Map<String, BufferedImage> previews;
 
     @BeforeClass
     public static void loadThemes() throws Exception {
@@ -42,6 +52,16 @@ public class ScreenshotComparisonTest {
         for (JsonElement el : array) {
             themeList.add(el.getAsJsonObject());
         }
+        List<String> slugs = new ArrayList<>();
+        for (JsonObject theme : themeList) {
+            slugs.add(theme.get("slug").getAsString());
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            previews = BeardedThemePreview.renderAll(slugs, pool);
+        } finally {
+            pool.shutdown();
+        }
     }
 
     @Test
@@ -83,9 +103,8 @@ public class ScreenshotComparisonTest {
             g.drawString(name, x + 4, y + 14);
 
             // Draw thumbnail
-            Path screenshotFile = SCREENSHOTS_DIR.resolve(slug + ".png");
-            if (Files.exists(screenshotFile)) {
-                BufferedImage screenshot = ImageIO.read(screenshotFile.toFile());
+            BufferedImage screenshot = previews.get(slug);
+            if (screenshot != null) {
                 g.drawImage(screenshot, x, y + labelHeight, thumbWidth, thumbHeight, null);
             } else {
                 g.setColor(new Color(0x33, 0x33, 0x33));
@@ -175,9 +194,8 @@ public class ScreenshotComparisonTest {
 
             int x = padding;
             for (int i = 0; i < 4; i += 2) {
-                Path ssFile = SCREENSHOTS_DIR.resolve(pair[i] + ".png");
-                if (Files.exists(ssFile)) {
-                    BufferedImage ss = ImageIO.read(ssFile.toFile());
+                BufferedImage ss = previews.get(pair[i]);
+                if (ss != null) {
                     g.drawImage(ss, x, y + labelHeight, thumbWidth, thumbHeight, null);
                 }
                 g.setColor(new Color(0x44, 0x44, 0x44));
@@ -213,32 +231,37 @@ public class ScreenshotComparisonTest {
         for (JsonObject theme : themeList) {
             String slug = theme.get("slug").getAsString();
             Path baselinePath = BASELINE_DIR.resolve(slug + ".png");
-            Path currentPath = SCREENSHOTS_DIR.resolve(slug + ".png");
+            BufferedImage current = previews.get(slug);
 
             if (!Files.exists(baselinePath)) {
                 report.append("[SKIP] ").append(slug).append(" - no baseline\n");
                 continue;
             }
-            if (!Files.exists(currentPath)) {
+            if (current == null) {
                 report.append("[FAIL] ").append(slug).append(" - no current screenshot\n");
                 failCount++;
                 continue;
             }
 
             BufferedImage baseline = ImageIO.read(baselinePath.toFile());
-            BufferedImage current = ImageIO.read(currentPath.toFile());
 
-            double diffPercent = compareImages(baseline, current, slug);
+            ImageDiff diff = ImageDiff.of(baseline, current, METRIC, TOLERANCE);
+            int limit = (int) (diff.totalPixels() * MAX_DIFF_PERCENT / 100);
+            int diffPixels = diff.countDifferences(limit);
+            double diffPercent = (double) diffPixels / diff.totalPixels() * 100.0;
 
-            if (diffPercent > 1.0) { // Allow up to 1% pixel difference for antialiasing
-                report.append("[DIFF] ").append(slug).append(" - ").append(String.format("%.2f%%", diffPercent)).append(" difference\n");
+            if (diffPixels > limit) {
+                // Counting stopped at the limit, so the percentage is a lower bound
+                ImageIO.write(diff.diffImage(), "PNG", DIFF_DIR.resolve(slug + "-diff.png").toFile());
+                report.append("[DIFF] ").append(slug).append(" - more than ").append(String.format("%.2f%%", MAX_DIFF_PERCENT)).append(" difference\n");
                 failCount++;
             } else {
                 report.append("[ OK ] ").append(slug).append(" - ").append(String.format("%.2f%%", diffPercent)).append(" difference\n");
             }
         }
 
-        report.append("\n").append(failCount).append(" theme(s) with visual differences > 1%\n");
+        report.append("\n").append(failCount).append(" theme(s) with visual differences > ")
+            .append(String.format("%.0f%%", MAX_DIFF_PERCENT)).append("\n");
 
         Path reportFile = SCREENSHOTS_DIR.resolve("comparison-report.txt");
         Files.write(reportFile, report.toString().getBytes(StandardCharsets.UTF_8));
@@ -248,50 +271,4 @@ public class ScreenshotComparisonTest {
             System.out.println("Diff images saved to: " + DIFF_DIR.toAbsolutePath());
         }
     }
-
-    /**
-     * Compare two images pixel by pixel and generate a diff image.
-     * Returns the percentage of pixels that differ.
-     */
-    private double compareImages(BufferedImage baseline, BufferedImage current, String slug) throws IOException {
-        int width = Math.min(baseline.getWidth(), current.getWidth());
-        int height = Math.min(baseline.getHeight(), current.getHeight());
-
-        BufferedImage diff = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-        int diffPixels = 0;
-        int totalPixels = width * height;
-
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                int bRgb = baseline.getRGB(x, y);
-                int cRgb = current.getRGB(x, y);
-
-                if (bRgb != cRgb) {
-                    // Highlight differences in red
-                    int r = Math.abs(((bRgb >> 16) & 0xFF) - ((cRgb >> 16) & 0xFF));
-                    int g = Math.abs(((bRgb >> 8) & 0xFF) - ((cRgb >> 8) & 0xFF));
-                    int b = Math.abs((bRgb & 0xFF) - (cRgb & 0xFF));
-                    int maxDiff = Math.max(r, Math.max(g, b));
-
-                    if (maxDiff > 5) { // Threshold for antialiasing tolerance
-                        diff.setRGB(x, y, 0xFFFF0000); // Red for difference
-                        diffPixels++;
-                    } else {
-                        diff.setRGB(x, y, cRgb); // Near-match, keep current
-                    }
-                } else {
-                    diff.setRGB(x, y, (cRgb & 0x00FFFFFF) | 0x40000000); // Semi-transparent for matching
-                }
-            }
-        }
-
-        double diffPercent = (double) diffPixels / totalPixels * 100.0;
-
-        if (diffPercent > 1.0) {
-            Path diffFile = DIFF_DIR.resolve(slug + "-diff.png");
-            ImageIO.write(diff, "PNG", diffFile.toFile());
-        }
-
-        return diffPercent;
-    }
 }
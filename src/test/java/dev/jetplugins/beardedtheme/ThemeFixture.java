@@ -0,0 +1,134 @@
+package dev.jetplugins.beardedtheme;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A theme's generated files, read and parsed once and shared by every test
+ * that looks at them. Loading runs on a pool sized to the machine, so
+ * {@link #preload} can start parsing all themes before the first test asks.
+ *
+ * The parsed objects are shared between tests and threads; callers only
+ * read them.
+ */
+final class ThemeFixture {
+
+    // *.theme.json and *.xml files expanded from src/main/themes by the materializeThemes task
+    static final Path MATERIALIZED_THEMES_DIR = Paths.get("build/generated/themes/themes");
+    static final Path PLUGIN_XML = Paths.get("src/main/resources/META-INF/plugin.xml");
+
+    private static final ExecutorService LOADER = Executors.newFixedThreadPool(
+        Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "ThemeFixture loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    private static final ConcurrentMap<String, CompletableFuture<ThemeFixture>> FIXTURES = new ConcurrentHashMap<>();
+
+    private final String json;
+    private final JsonObject theme;
+    private final BeardedThemeData data;
+    private final String schemeXml;
+    private final BeardedEditorScheme scheme;
+
+    private ThemeFixture(String slug) throws IOException {
+        json = read(MATERIALIZED_THEMES_DIR.resolve(slug + ".theme.json"));
+        theme = JsonParser.parseString(json).getAsJsonObject();
+        data = BeardedThemeData.parse(slug, theme);
+        schemeXml = read(MATERIALIZED_THEMES_DIR.resolve(slug + ".xml"));
+        scheme = BeardedEditorScheme.parse(new StringReader(schemeXml));
+    }
+
+    /**
+     * Starts loading the given themes in the background.
+     */
+    static void preload(Collection<String> slugs) {
+        slugs.forEach(ThemeFixture::load);
+    }
+
+    static ThemeFixture get(String slug) throws IOException {
+        try {
+            return load(slug).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    static String pluginXml() {
+        return PluginXml.TEXT;
+    }
+
+    /** The theme file as written by the build. */
+    String json() {
+        return json;
+    }
+
+    /** The theme file parsed with Gson. */
+    JsonObject theme() {
+        return theme;
+    }
+
+    /** The theme file parsed the way the plugin parses it at runtime. */
+    BeardedThemeData data() {
+        return data;
+    }
+
+    /** The editor scheme XML as written by the build. */
+    String schemeXml() {
+        return schemeXml;
+    }
+
+    /** The editor scheme parsed the way the plugin parses it at runtime. */
+    BeardedEditorScheme scheme() {
+        return scheme;
+    }
+
+    private static CompletableFuture<ThemeFixture> load(String slug) {
+        return FIXTURES.computeIfAbsent(slug, s -> CompletableFuture.supplyAsync(() -> {
+            try {
+                return new ThemeFixture(s);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, LOADER));
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+    private static final class PluginXml {
+        static final String TEXT;
+
+        static {
+            try {
+                TEXT = read(PLUGIN_XML);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}